@@ -2,10 +2,14 @@ package com.insulinpump.patientservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableDiscoveryClient
-@SpringBootApplication
+@EnableScheduling
+// El pool R2DBC de lectura reactiva se crea en ReactiveDatabaseConfig sin desplazar al DataSource de JPA
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class PatientserviceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,127 @@
+package com.insulinpump.patientservice.concurrency;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de concurrencia adaptativo basado en gradiente (estilo Gradient2/Vegas).
+ * Compara la latencia reciente con la latencia de referencia a largo plazo: si la
+ * reciente crece, el límite se reduce; si se mantiene, el límite crece con un margen
+ * de cola de raíz cuadrada. Todo el estado se actualiza con CAS, sin bloqueos.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong estimatedLimit;
+    private final AtomicLong shortRtt = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong longRtt = new AtomicLong(Double.doubleToLongBits(0));
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, LongSupplier clock) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Límites de concurrencia inválidos: inicial=" + initialLimit
+                    + ", min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.clock = clock;
+        this.estimatedLimit = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    public Optional<Permit> tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (getLimit() * priority.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(clock.getAsLong(), current + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(estimatedLimit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart) {
+        double sample = Math.max(1, rttNanos);
+        double shortAvg = update(shortRtt, prev -> prev == 0 ? sample : prev + (sample - prev) / SHORT_WINDOW);
+        double longAvg = update(longRtt, prev -> prev == 0 ? sample : prev + (sample - prev) / LONG_WINDOW);
+
+        // Si la latencia reciente es muy inferior a la de referencia, la referencia se recupera
+        if (longAvg / shortAvg > 2) {
+            longAvg = update(longRtt, prev -> prev * 0.95);
+        }
+
+        double limit = Double.longBitsToDouble(estimatedLimit.get());
+        // Con poca carga la latencia no dice nada sobre el límite
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longAvg / shortAvg));
+        double queueSize = Math.sqrt(limit);
+        update(estimatedLimit, prev -> {
+            double target = prev * gradient + queueSize;
+            double smoothed = prev * (1 - SMOOTHING) + target * SMOOTHING;
+            return Math.max(minLimit, Math.min(maxLimit, smoothed));
+        });
+    }
+
+    private static double update(AtomicLong holder, DoubleUnaryOperator fn) {
+        while (true) {
+            long prevBits = holder.get();
+            double next = fn.applyAsDouble(Double.longBitsToDouble(prevBits));
+            if (holder.compareAndSet(prevBits, Double.doubleToLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicInteger released = new AtomicInteger();
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // Libera el permiso registrando la latencia observada
+        public void release() {
+            if (released.compareAndSet(0, 1)) {
+                inFlight.decrementAndGet();
+                onSample(clock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+
+        // Libera el permiso sin registrar latencia (peticiones no representativas)
+        public void releaseWithoutSample() {
+            if (released.compareAndSet(0, 1)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
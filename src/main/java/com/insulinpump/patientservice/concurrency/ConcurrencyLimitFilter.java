@@ -0,0 +1,138 @@
+package com.insulinpump.patientservice.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insulinpump.patientservice.exception.ErrorResponse;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String SUBSCRIBE_PATH = "/api/patients/subscribe";
+    // Historial de mediciones en streaming: /api/patients/{id}/measurements
+    private static final String MEASUREMENTS_SUFFIX = "/measurements";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  @Value("${patients.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${patients.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${patients.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${patients.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${patients.concurrency.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Solo se limita la API; health checks y actuator nunca se descartan.
+        // Las suscripciones SSE quedan abiertas indefinidamente y retendrían un permiso toda su vida
+        String uri = request.getRequestURI();
+        return !enabled || !uri.startsWith("/api/") || uri.startsWith(SUBSCRIBE_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request);
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(priority);
+        if (permit.isEmpty()) {
+            reject(request, response, priority);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new PermitReleasingListener(permit.get()));
+            }
+        } finally {
+            if (!async) {
+                permit.get().release();
+            }
+        }
+    }
+
+    static RequestPriority classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return RequestPriority.CRITICAL;
+        }
+        String uri = request.getRequestURI();
+        if (uri.endsWith("/")) {
+            uri = uri.substring(0, uri.length() - 1);
+        }
+        if ("/api/patients".equals(uri) || "/api/reactive/patients".equals(uri) || uri.endsWith(MEASUREMENTS_SUFFIX)) {
+            return RequestPriority.BULK;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RequestPriority priority)
+            throws IOException {
+        log.warn("Petición descartada por sobrecarga: {} {} (prioridad {}, límite {}, en curso {})",
+                request.getMethod(), request.getRequestURI(), priority, limiter.getLimit(), limiter.getInFlight());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servicio sobrecargado, reintente más tarde",
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private record PermitReleasingListener(AdaptiveConcurrencyLimiter.Permit permit) implements AsyncListener {
+
+        // La duración de una respuesta asíncrona o en streaming depende del volumen y del cliente,
+        // no de la saturación del servicio: registrarla encogería el límite sin motivo
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.releaseWithoutSample();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
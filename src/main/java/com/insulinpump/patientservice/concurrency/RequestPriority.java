@@ -0,0 +1,20 @@
+package com.insulinpump.patientservice.concurrency;
+
+public enum RequestPriority {
+    // Escrituras: pueden usar todo el límite
+    CRITICAL(1.0),
+    // Consultas puntuales
+    NORMAL(0.9),
+    // Listados masivos (getAllPatients, streaming)
+    BULK(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
@@ -0,0 +1,49 @@
+package com.insulinpump.patientservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// Conexiones R2DBC para la lectura reactiva, en paralelo al DataSource JDBC que usa JPA.
+// El ConnectionFactory no se publica como bean: su presencia desactivaría la autoconfiguración del DataSource.
+@Configuration
+@ConditionalOnProperty(name = "patients.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${patients.reactive.r2dbc.url}") String url,
+                                                 @Value("${patients.reactive.r2dbc.username}") String username,
+                                                 @Value("${patients.reactive.r2dbc.password}") String password,
+                                                 @Value("${patients.reactive.r2dbc.pool.initial-size:5}") int initialSize,
+                                                 @Value("${patients.reactive.r2dbc.pool.max-size:50}") int maxSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
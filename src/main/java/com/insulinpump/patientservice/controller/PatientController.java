@@ -1,8 +1,14 @@
 package com.insulinpump.patientservice.controller;
 
+import com.insulinpump.patientservice.dto.PatientCohortStats;
+import com.insulinpump.patientservice.dto.PatientSearchResult;
+import com.insulinpump.patientservice.index.DeviceRoutingStats;
 import com.insulinpump.patientservice.model.Patient;
 import com.insulinpump.patientservice.service.PatientService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -25,6 +31,19 @@ public class PatientController {
         return ResponseEntity.ok(patientService.getAllPatients());
     }
 
+    @GetMapping("/find")
+    public ResponseEntity<List<PatientSearchResult>> findPatients(@RequestParam @NotBlank String q,
+                                                                  @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        log.info("GET /api/patients/find?q={} - Buscando pacientes", q);
+        return ResponseEntity.ok(patientService.searchPatients(q, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<PatientCohortStats> getCohortStats() {
+        log.info("GET /api/patients/stats - Obteniendo estadísticas de la población de pacientes");
+        return ResponseEntity.ok(patientService.getCohortStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
         log.info("GET /api/patients/{} - Obteniendo paciente por ID", id);
@@ -69,4 +88,10 @@ public class PatientController {
         log.info("GET /api/patients/device/{} - Obteniendo paciente por dispositivo", deviceId);
         return ResponseEntity.ok(patientService.getPatientByDeviceId(deviceId));
     }
+
+    @GetMapping("/device/routing/stats")
+    public ResponseEntity<DeviceRoutingStats> getDeviceRoutingStats() {
+        log.info("GET /api/patients/device/routing/stats - Obteniendo uso de la tabla de rutas de dispositivos");
+        return ResponseEntity.ok(patientService.getDeviceRoutingStats());
+    }
 }
\ No newline at end of file
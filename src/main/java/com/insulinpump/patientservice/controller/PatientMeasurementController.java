@@ -0,0 +1,47 @@
+package com.insulinpump.patientservice.controller;
+
+import com.insulinpump.patientservice.dto.MeasurementPoint;
+import com.insulinpump.patientservice.dto.MeasurementRequest;
+import com.insulinpump.patientservice.model.MeasurementResolution;
+import com.insulinpump.patientservice.service.PatientMeasurementService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/patients/{patientId}/measurements")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientMeasurementController {
+
+    private final PatientMeasurementService measurementService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<MeasurementPoint> getMeasurements(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "RAW") MeasurementResolution resolution) {
+        log.info("GET /api/patients/{}/measurements - Obteniendo historial de mediciones ({})", patientId, resolution);
+        return measurementService.streamMeasurements(patientId,
+                from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0),
+                to != null ? to : LocalDateTime.now().plusDays(1),
+                resolution);
+    }
+
+    @PostMapping
+    public ResponseEntity<Integer> appendMeasurements(@PathVariable Long patientId,
+                                                      @RequestBody List<@Valid MeasurementRequest> measurements) {
+        log.info("POST /api/patients/{}/measurements - Registrando {} mediciones", patientId, measurements.size());
+        return new ResponseEntity<>(measurementService.appendMeasurements(patientId, measurements), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,32 @@
+package com.insulinpump.patientservice.controller;
+
+import com.insulinpump.patientservice.subscription.PatientChangeBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientSubscriptionController {
+
+    private final PatientChangeBroadcaster broadcaster;
+
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) Set<Long> deviceIds,
+                                @RequestParam(required = false) Set<Long> patientIds,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("GET /api/patients/subscribe - Suscripción a cambios (dispositivos={}, pacientes={}, desde={})",
+                deviceIds, patientIds, lastEventId);
+        return broadcaster.subscribe(deviceIds, patientIds, lastEventId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.insulinpump.patientservice.controller;
+
+import com.insulinpump.patientservice.profiling.JfrRecordingService;
+import com.insulinpump.patientservice.profiling.JfrSummarizer;
+import com.insulinpump.patientservice.profiling.ProfilingReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/admin/profiling")
+// Desactivado por defecto; al activarlo, ProfilingAuthFilter exige patients.profiling.token
+@ConditionalOnProperty(name = "patients.profiling.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ProfilingController {
+
+    private final JfrRecordingService recordingService;
+    private final JfrSummarizer summarizer;
+
+    @PostMapping("/start")
+    public ResponseEntity<Void> startRecording(@RequestParam(defaultValue = "60") long durationSeconds) {
+        log.info("POST /admin/profiling/start - Iniciando grabación JFR de {} s", durationSeconds);
+        recordingService.start(Duration.ofSeconds(durationSeconds));
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> stopRecording() {
+        log.info("POST /admin/profiling/stop - Deteniendo grabación JFR");
+        Path dump = recordingService.stop();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("patient-service.jfr").build().toString())
+                .body(new FileSystemResource(dump));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<ProfilingReport> getSummary(@RequestParam(defaultValue = "10") int top) {
+        log.info("GET /admin/profiling/summary - Resumiendo la última grabación JFR (top {})", top);
+        return ResponseEntity.ok(summarizer.summarize(recordingService.getLastDump(), top));
+    }
+}
@@ -0,0 +1,48 @@
+package com.insulinpump.patientservice.controller;
+
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.service.ReactivePatientService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/reactive/patients")
+@ConditionalOnProperty(name = "patients.reactive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePatientController {
+
+    private final ReactivePatientService reactivePatientService;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Patient> streamAllPatients() {
+        log.info("GET /api/reactive/patients - Emitiendo pacientes en streaming");
+        return reactivePatientService.streamAllPatients();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Patient> getPatientById(@PathVariable Long id) {
+        log.info("GET /api/reactive/patients/{} - Obteniendo paciente por ID", id);
+        return reactivePatientService.getPatientById(id);
+    }
+
+    @GetMapping("/medical/{medicalId}")
+    public Mono<Patient> getPatientByMedicalId(@PathVariable String medicalId) {
+        log.info("GET /api/reactive/patients/medical/{} - Obteniendo paciente por ID médico", medicalId);
+        return reactivePatientService.getPatientByMedicalId(medicalId);
+    }
+
+    @GetMapping("/device/{deviceId}")
+    public Mono<Patient> getPatientByDeviceId(@PathVariable Long deviceId) {
+        log.info("GET /api/reactive/patients/device/{} - Obteniendo paciente por dispositivo", deviceId);
+        return reactivePatientService.getPatientByDeviceId(deviceId);
+    }
+}
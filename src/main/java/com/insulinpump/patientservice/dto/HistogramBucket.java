@@ -0,0 +1,13 @@
+package com.insulinpump.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBucket {
+    private String label;
+    private long count;
+}
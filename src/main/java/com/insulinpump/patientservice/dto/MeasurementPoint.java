@@ -0,0 +1,19 @@
+package com.insulinpump.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Medición individual (RAW) o media de un intervalo (DAILY/WEEKLY)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementPoint {
+    private LocalDateTime timestamp;
+    private Float weight;
+    private Float height;
+    private Float bmi;
+    private int samples;
+}
@@ -0,0 +1,34 @@
+package com.insulinpump.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementRequest {
+
+    @NotNull(message = "La fecha de la medición es obligatoria")
+    @PastOrPresent(message = "La fecha de la medición no puede ser futura")
+    private LocalDateTime measuredAt;
+
+    @Positive(message = "El peso debe ser positivo")
+    private Float weight;
+
+    @Positive(message = "La altura debe ser positiva")
+    private Float height;
+
+    @JsonIgnore
+    @AssertTrue(message = "La medición debe incluir el peso o la altura")
+    public boolean isWeightOrHeightPresent() {
+        return weight != null || height != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.insulinpump.patientservice.dto;
+
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Notificación enviada a los suscriptores de GET /api/patients/subscribe
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientChangeNotification {
+    // "<época>-<secuencia>": la época identifica el arranque de la instancia que numeró el evento
+    private String eventId;
+    private PatientChangedEvent.ChangeType type;
+    private Long patientId;
+    private String clinicId;
+    private Long deviceId;
+    private Long previousDeviceId;
+    private LocalDateTime timestamp;
+}
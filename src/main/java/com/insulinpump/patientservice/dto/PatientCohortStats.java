@@ -0,0 +1,24 @@
+package com.insulinpump.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Estadísticas de la población de pacientes de la clínica para el panel clínico
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientCohortStats {
+    private long totalPatients;
+    private long deviceAssigned;
+    private double deviceAssignedRatio;
+    private Map<String, Long> byDiabetesType;
+    private List<HistogramBucket> ageHistogram;
+    private List<HistogramBucket> bmiHistogram;
+    private Double averageAge;
+    private Double averageBmi;
+    private long computeMicros;
+}
@@ -0,0 +1,19 @@
+package com.insulinpump.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado ligero de GET /api/patients/find, ordenado por relevancia
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSearchResult {
+    private Long id;
+    private String name;
+    private String medicalId;
+    private String email;
+    private String phone;
+    private Long deviceId;
+    private int score;
+}
@@ -0,0 +1,49 @@
+package com.insulinpump.patientservice.event;
+
+import com.insulinpump.patientservice.model.Patient;
+import lombok.Getter;
+
+// Cambio de un paciente; los consumidores lo reciben tras el commit de la transacción
+@Getter
+public class PatientChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DEVICE_ASSIGNED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Patient patient;
+    private final Long previousDeviceId;
+
+    public PatientChangedEvent(ChangeType type, Patient patient, Long previousDeviceId) {
+        this.type = type;
+        this.patient = snapshot(patient);
+        this.previousDeviceId = previousDeviceId;
+    }
+
+    public Long getPatientId() {
+        return patient.getId();
+    }
+
+    // Copia del estado en el momento del cambio, independiente de la entidad gestionada
+    public static Patient snapshot(Patient source) {
+        Patient copy = new Patient();
+        copy.setId(source.getId());
+        copy.setClinicId(source.getClinicId());
+        copy.setName(source.getName());
+        copy.setAge(source.getAge());
+        copy.setMedicalId(source.getMedicalId());
+        copy.setDeviceId(source.getDeviceId());
+        copy.setDiabetesType(source.getDiabetesType());
+        copy.setEmail(source.getEmail());
+        copy.setPhone(source.getPhone());
+        copy.setWeight(source.getWeight());
+        copy.setHeight(source.getHeight());
+        copy.setEmergencyContact(source.getEmergencyContact());
+        copy.setLastActivityAt(source.getLastActivityAt());
+        return copy;
+    }
+}
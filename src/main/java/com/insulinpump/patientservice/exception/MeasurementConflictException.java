@@ -0,0 +1,7 @@
+package com.insulinpump.patientservice.exception;
+
+public class MeasurementConflictException extends RuntimeException {
+    public MeasurementConflictException(String message) {
+        super(message);
+    }
+}
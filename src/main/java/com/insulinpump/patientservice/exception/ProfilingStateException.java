@@ -0,0 +1,7 @@
+package com.insulinpump.patientservice.exception;
+
+public class ProfilingStateException extends RuntimeException {
+    public ProfilingStateException(String message) {
+        super(message);
+    }
+}
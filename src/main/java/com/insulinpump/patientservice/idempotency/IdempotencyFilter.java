@@ -0,0 +1,254 @@
+package com.insulinpump.patientservice.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insulinpump.patientservice.exception.ErrorResponse;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+// Deduplica los reintentos de alta de paciente y asignación de dispositivo con la cabecera Idempotency-Key.
+// Va antes del limitador de concurrencia: un duplicado que espera o se repite no ocupa ningún permiso
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 8)
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Pattern DEVICE_ASSIGNMENT = Pattern.compile("/api/patients/[^/]+/device/[^/]+");
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long waitTimeoutMillis;
+    private final int maxBodyBytes;
+    private final int maxRequestBytes;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             @Value("${patients.idempotency.enabled:true}") boolean enabled,
+                             @Value("${patients.idempotency.wait-timeout-seconds:30}") long waitTimeoutSeconds,
+                             @Value("${patients.idempotency.max-body-bytes:262144}") int maxBodyBytes,
+                             @Value("${patients.idempotency.max-request-bytes:65536}") int maxRequestBytes) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.waitTimeoutMillis = TimeUnit.SECONDS.toMillis(waitTimeoutSeconds);
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null || !isIdempotentTarget(request);
+    }
+
+    static boolean isIdempotentTarget(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.endsWith("/")) {
+            uri = uri.substring(0, uri.length() - 1);
+        }
+        return switch (request.getMethod()) {
+            case "POST" -> "/api/patients".equals(uri);
+            case "PUT" -> DEVICE_ASSIGNMENT.matcher(uri).matches();
+            default -> false;
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, "Cabecera " + IDEMPOTENCY_KEY_HEADER + " inválida");
+            return;
+        }
+
+        // El filtro va antes del limitador de concurrencia: el cuerpo se lee con tope para no cargar en memoria
+        // peticiones arbitrariamente grandes antes de calcular la huella
+        if (request.getContentLengthLong() > maxRequestBytes) {
+            rejectTooLarge(response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxRequestBytes + 1);
+        if (body.length > maxRequestBytes) {
+            rejectTooLarge(response);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        String fingerprint = fingerprint(cachedRequest.body);
+        // La misma clave en otra clínica, método o ruta es una operación distinta
+        String scopedKey = String.join("|", TenantContext.getCurrentTenant(), request.getMethod(),
+                request.getRequestURI(), key);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            IdempotencyStore.Reservation reservation = store.reserve(scopedKey, fingerprint);
+            if (reservation.owner()) {
+                execute(cachedRequest, response, filterChain, scopedKey, reservation.entry(), fingerprint);
+                return;
+            }
+            if (!reservation.entry().getFingerprint().equals(fingerprint)) {
+                log.warn("Clave de idempotencia {} reutilizada con otro cuerpo de petición", key);
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "La clave de idempotencia ya se usó con una petición distinta");
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                stored = reservation.entry().await(waitTimeoutMillis);
+            } catch (TimeoutException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (stored != null) {
+                replay(response, stored);
+                return;
+            }
+        }
+        reject(response, HttpStatus.CONFLICT, "Hay una petición con la misma clave de idempotencia en curso");
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String scopedKey, IdempotencyStore.Entry entry, String fingerprint)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            // Los 5xx pueden ser transitorios: no se guardan para que el reintento vuelva a ejecutarse
+            if (wrapper.getStatus() < 500 && wrapper.getContentSize() <= maxBodyBytes) {
+                store.complete(scopedKey, entry, new StoredResponse(fingerprint, wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getHeader(HttpHeaders.LOCATION),
+                        wrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.abandon(scopedKey, entry);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        log.info("Repitiendo respuesta almacenada ({}) para clave de idempotencia", stored.status());
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() != null ? stored.body() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        log.warn("Petición con clave de idempotencia rechazada: el cuerpo supera {} bytes", maxRequestBytes);
+        reject(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "El cuerpo de la petición supera el máximo de " + maxRequestBytes + " bytes");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), message, LocalDateTime.now());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    // Conserva el cuerpo leído por adelantado para calcular la huella y entregarlo después a la cadena
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
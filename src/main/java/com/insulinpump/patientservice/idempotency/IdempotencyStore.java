@@ -0,0 +1,183 @@
+package com.insulinpump.patientservice.idempotency;
+
+import com.insulinpump.patientservice.model.IdempotencyRecord;
+import com.insulinpump.patientservice.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Respuestas de peticiones con Idempotency-Key: acotado en memoria, con caducidad y nivel MySQL opcional
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Orden de admisión para expulsar primero las claves más antiguas al superar el máximo
+    private final Queue<Admission> admissions = new ConcurrentLinkedQueue<>();
+
+    private final IdempotencyRecordRepository repository;
+    private final boolean persistent;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${patients.idempotency.persistent:false}") boolean persistent,
+                            @Value("${patients.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${patients.idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.persistent = persistent && repository != null;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Reserva la clave para ejecutar la petición o devuelve la entrada existente.
+     * Solo el propietario de la reserva debe llamar después a complete o abandon.
+     */
+    public Reservation reserve(String scopedKey, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry existing = entries.get(scopedKey);
+        if (existing != null && existing.isExpired(now)) {
+            entries.remove(scopedKey, existing);
+            existing = null;
+        }
+        if (existing != null) {
+            return new Reservation(existing, false);
+        }
+
+        Entry candidate = loadPersisted(scopedKey, now).orElse(null);
+        boolean owner = candidate == null;
+        if (owner) {
+            candidate = new Entry(fingerprint, now + ttlMillis);
+        }
+        Entry raced = entries.putIfAbsent(scopedKey, candidate);
+        if (raced != null) {
+            return new Reservation(raced, false);
+        }
+        admissions.add(new Admission(scopedKey, candidate));
+        evictOverflow();
+        return new Reservation(candidate, owner);
+    }
+
+    // Publica la respuesta a las peticiones duplicadas que esperan y a los reintentos futuros
+    public void complete(String scopedKey, Entry entry, StoredResponse response) {
+        entry.response.complete(response);
+        if (persistent) {
+            try {
+                repository.save(new IdempotencyRecord(scopedKey, response.fingerprint(), response.status(),
+                        response.contentType(), response.location(), response.body(), toDateTime(entry.expiresAt)));
+            } catch (RuntimeException e) {
+                // La copia en memoria sigue siendo válida; solo se pierde la protección entre instancias
+                log.warn("No se pudo persistir la clave de idempotencia {}: {}", scopedKey, e.getMessage());
+            }
+        }
+    }
+
+    // La ejecución no produjo una respuesta repetible: los duplicados en espera vuelven a intentarlo
+    public void abandon(String scopedKey, Entry entry) {
+        entries.remove(scopedKey, entry);
+        entry.response.complete(null);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${patients.idempotency.purge-interval-minutes:5}", timeUnit = TimeUnit.MINUTES)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now) && entry.response.isDone());
+        admissions.removeIf(admission -> entries.get(admission.key()) != admission.entry());
+        if (persistent) {
+            int deleted = repository.deleteExpired(toDateTime(now));
+            if (deleted > 0) {
+                log.info("Eliminadas {} claves de idempotencia caducadas", deleted);
+            }
+        }
+    }
+
+    // Las claves en ejecución no se expulsan: su propietario aún debe publicar la respuesta
+    // y un reintento que llegara mientras tanto se ejecutaría por duplicado
+    private void evictOverflow() {
+        int candidates = admissions.size();
+        while (entries.size() > maxEntries && candidates-- > 0) {
+            Admission oldest = admissions.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (oldest.entry().response.isDone()) {
+                entries.remove(oldest.key(), oldest.entry());
+            } else if (entries.get(oldest.key()) == oldest.entry()) {
+                admissions.add(oldest);
+            }
+        }
+    }
+
+    private Optional<Entry> loadPersisted(String scopedKey, long now) {
+        if (!persistent) {
+            return Optional.empty();
+        }
+        return repository.findById(scopedKey)
+                .filter(record -> record.getExpiresAt().isAfter(toDateTime(now)))
+                .map(record -> {
+                    Entry entry = new Entry(record.getFingerprint(),
+                            record.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    entry.response.complete(new StoredResponse(record.getFingerprint(), record.getStatus(),
+                            record.getContentType(), record.getLocation(), record.getBody()));
+                    return entry;
+                });
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    public record Reservation(Entry entry, boolean owner) {
+    }
+
+    private record Admission(String key, Entry entry) {
+    }
+
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        // Devuelve null si la ejecución original se abandonó
+        public StoredResponse await(long timeoutMillis) throws InterruptedException, TimeoutException {
+            try {
+                return response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.insulinpump.patientservice.idempotency;
+
+// Respuesta completada de una petición idempotente, lista para repetirse
+public record StoredResponse(String fingerprint, int status, String contentType, String location, byte[] body) {
+}
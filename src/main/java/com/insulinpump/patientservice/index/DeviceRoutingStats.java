@@ -0,0 +1,19 @@
+package com.insulinpump.patientservice.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceRoutingStats {
+    private int entries;
+    private int capacity;
+    // Copias de pacientes en modo autoritativo
+    private int snapshots;
+    // Total: mapa de rutas más copias
+    private long memoryBytes;
+    private long snapshotMemoryBytes;
+    private boolean loaded;
+}
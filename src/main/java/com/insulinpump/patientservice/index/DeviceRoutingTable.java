@@ -0,0 +1,370 @@
+package com.insulinpump.patientservice.index;
+
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.DeviceRoute;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Tabla en memoria deviceId → id de paciente para GET /api/patients/device/{deviceId}.
+ * En modo autoritativo guarda además los campos de cada paciente con dispositivo en columnas
+ * indexadas por hueco: al ser esta instancia la única que escribe, la copia es exacta y los aciertos
+ * se sirven sin consultar MySQL. Las lecturas son optimistas (StampedLock); las escrituras, tanto
+ * eventos como páginas de la carga inicial, se serializan con el bloqueo de escritura.
+ */
+@Component
+@Slf4j
+public class DeviceRoutingTable {
+
+    public static final long NOT_FOUND = -1L;
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LongLongHashMap routes = new LongLongHashMap();
+    private final StampedLock lock = new StampedLock();
+    private final LoadingChanges loadingChanges = new LoadingChanges();
+    private final PatientRepository patientRepository;
+    private final boolean authoritative;
+    private volatile boolean loaded;
+
+    // Copias de pacientes (solo en modo autoritativo): id de paciente → hueco de las columnas
+    private final SlotAllocator slots = new SlotAllocator();
+    private SnapshotColumns columns;
+    // Diccionario de clínicas: la columna guarda un código entero en vez del String
+    private final Map<String, Integer> clinicCodes = new HashMap<>();
+    private String[] clinicNames = new String[8];
+    // Estimación de los String de las columnas (cabeceras incluidas)
+    private long stringBytes;
+
+    public DeviceRoutingTable(PatientRepository patientRepository,
+                              @Value("${patients.device-routing.authoritative:false}") boolean authoritative) {
+        this.patientRepository = patientRepository;
+        this.authoritative = authoritative;
+        this.columns = authoritative ? new SnapshotColumns(INITIAL_CAPACITY) : new SnapshotColumns(0);
+    }
+
+    public long lookup(long deviceId) {
+        return routes.get(deviceId, NOT_FOUND);
+    }
+
+    // Copia del paciente enrutado, o null si no hay copia o ya no tiene ese dispositivo
+    public Patient findSnapshot(long deviceId, long patientId) {
+        if (!authoritative) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        Patient snapshot = readSnapshot(deviceId, patientId);
+        if (lock.validate(stamp)) {
+            return snapshot;
+        }
+        stamp = lock.readLock();
+        try {
+            return readSnapshot(deviceId, patientId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Un fallo solo es definitivo si la tabla está cargada y es la única instancia que escribe
+    public boolean isAuthoritativeMiss() {
+        return authoritative && loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int count = authoritative ? loadWithSnapshots() : loadRoutes();
+        long stamp = lock.writeLock();
+        try {
+            loadingChanges.finish();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        loaded = true;
+        DeviceRoutingStats stats = getStats();
+        log.info("Tabla de rutas de dispositivos cargada: {} entradas en {} ms ({} bytes, {} copias de pacientes)",
+                count, (System.nanoTime() - start) / 1_000_000, stats.getMemoryBytes(), stats.getSnapshots());
+    }
+
+    private int loadRoutes() {
+        long lastId = 0L;
+        int count = 0;
+        List<DeviceRoute> page;
+        do {
+            long after = lastId;
+            page = TenantContext.callAsRoot(() -> patientRepository.findDeviceRoutesAfter(after, PageRequest.ofSize(LOAD_PAGE_SIZE)));
+            long stamp = lock.writeLock();
+            try {
+                for (DeviceRoute route : page) {
+                    // Un evento ya aplicado es más reciente que la página
+                    if (!loadingChanges.isStale(route.getId())) {
+                        routes.put(route.getDeviceId(), route.getId());
+                    }
+                    lastId = route.getId();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            count += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return count;
+    }
+
+    private int loadWithSnapshots() {
+        long lastId = 0L;
+        int count = 0;
+        List<Patient> page;
+        do {
+            long after = lastId;
+            page = TenantContext.callAsRoot(
+                    () -> patientRepository.findByDeviceIdIsNotNullAndIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_PAGE_SIZE)));
+            long stamp = lock.writeLock();
+            try {
+                for (Patient patient : page) {
+                    if (!loadingChanges.isStale(patient.getId())) {
+                        routes.put(patient.getDeviceId(), patient.getId());
+                        writeSnapshot(patient);
+                    }
+                    lastId = patient.getId();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            count += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return count;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        Patient patient = event.getPatient();
+        Long previousDeviceId = event.getPreviousDeviceId();
+        long stamp = lock.writeLock();
+        try {
+            loadingChanges.record(patient.getId());
+            if (previousDeviceId != null && !previousDeviceId.equals(patient.getDeviceId())) {
+                routes.remove(previousDeviceId, patient.getId());
+            }
+            if (event.getType() == PatientChangedEvent.ChangeType.DELETED) {
+                if (patient.getDeviceId() != null) {
+                    routes.remove(patient.getDeviceId(), patient.getId());
+                }
+                removeSnapshot(patient.getId());
+            } else if (patient.getDeviceId() != null) {
+                routes.put(patient.getDeviceId(), patient.getId());
+                if (authoritative) {
+                    writeSnapshot(patient);
+                }
+            } else {
+                removeSnapshot(patient.getId());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public DeviceRoutingStats getStats() {
+        long snapshotBytes;
+        int snapshots;
+        long stamp = lock.readLock();
+        try {
+            snapshots = authoritative ? slots.size() : 0;
+            snapshotBytes = authoritative
+                    ? slots.memoryBytes() + columns.memoryBytes() + 16 + 4L * clinicNames.length + stringBytes
+                    : 0L;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return new DeviceRoutingStats(routes.size(), routes.capacity(), snapshots,
+                routes.memoryBytes() + snapshotBytes, snapshotBytes, loaded);
+    }
+
+    // Con el bloqueo de escritura
+    private void writeSnapshot(Patient patient) {
+        int slot = slots.allocate(patient.getId());
+        if (slot == columns.deviceIds.length) {
+            columns = columns.grow();
+        }
+        SnapshotColumns c = columns;
+        c.deviceIds[slot] = patient.getDeviceId();
+        c.clinicCodes[slot] = clinicCode(patient.getClinicId() != null ? patient.getClinicId() : TenantContext.DEFAULT_TENANT);
+        c.ages[slot] = patient.getAge() != null ? patient.getAge() : SnapshotColumns.NO_AGE;
+        c.weights[slot] = patient.getWeight() != null ? patient.getWeight() : Float.NaN;
+        c.heights[slot] = patient.getHeight() != null ? patient.getHeight() : Float.NaN;
+        c.diabetesTypes[slot] = patient.getDiabetesType() != null
+                ? (byte) patient.getDiabetesType().ordinal() : SnapshotColumns.NO_DIABETES_TYPE;
+        c.lastActivityMicros[slot] = toMicros(patient.getLastActivityAt());
+        c.names[slot] = setString(c.names[slot], patient.getName());
+        c.medicalIds[slot] = setString(c.medicalIds[slot], patient.getMedicalId());
+        c.emails[slot] = setString(c.emails[slot], patient.getEmail());
+        c.phones[slot] = setString(c.phones[slot], patient.getPhone());
+        c.emergencyContacts[slot] = setString(c.emergencyContacts[slot], patient.getEmergencyContact());
+    }
+
+    // Con el bloqueo de escritura
+    private void removeSnapshot(long patientId) {
+        int slot = slots.release(patientId);
+        if (slot == SlotAllocator.NO_SLOT) {
+            return;
+        }
+        SnapshotColumns c = columns;
+        c.deviceIds[slot] = SnapshotColumns.NO_DEVICE;
+        c.names[slot] = setString(c.names[slot], null);
+        c.medicalIds[slot] = setString(c.medicalIds[slot], null);
+        c.emails[slot] = setString(c.emails[slot], null);
+        c.phones[slot] = setString(c.phones[slot], null);
+        c.emergencyContacts[slot] = setString(c.emergencyContacts[slot], null);
+    }
+
+    // Sin bloqueo o con el de lectura: en lectura optimista los datos pueden ser incoherentes y el llamador valida
+    private Patient readSnapshot(long deviceId, long patientId) {
+        int slot = slots.slotOf(patientId);
+        SnapshotColumns c = columns;
+        String[] clinics = clinicNames;
+        if (slot == SlotAllocator.NO_SLOT || slot >= c.deviceIds.length || c.deviceIds[slot] != deviceId) {
+            return null;
+        }
+        int clinicCode = c.clinicCodes[slot];
+        byte diabetesType = c.diabetesTypes[slot];
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        patient.setClinicId(clinicCode < clinics.length ? clinics[clinicCode] : null);
+        patient.setDeviceId(deviceId);
+        patient.setName(c.names[slot]);
+        patient.setAge(c.ages[slot] != SnapshotColumns.NO_AGE ? c.ages[slot] : null);
+        patient.setMedicalId(c.medicalIds[slot]);
+        patient.setDiabetesType(diabetesType >= 0 && diabetesType < SnapshotColumns.DIABETES_TYPES.length
+                ? SnapshotColumns.DIABETES_TYPES[diabetesType] : null);
+        patient.setEmail(c.emails[slot]);
+        patient.setPhone(c.phones[slot]);
+        patient.setWeight(Float.isNaN(c.weights[slot]) ? null : c.weights[slot]);
+        patient.setHeight(Float.isNaN(c.heights[slot]) ? null : c.heights[slot]);
+        patient.setEmergencyContact(c.emergencyContacts[slot]);
+        patient.setLastActivityAt(fromMicros(c.lastActivityMicros[slot]));
+        return patient;
+    }
+
+    private int clinicCode(String clinicId) {
+        Integer code = clinicCodes.get(clinicId);
+        if (code != null) {
+            return code;
+        }
+        int newCode = clinicCodes.size();
+        if (newCode == clinicNames.length) {
+            clinicNames = Arrays.copyOf(clinicNames, newCode * 2);
+        }
+        clinicNames[newCode] = clinicId;
+        clinicCodes.put(clinicId, newCode);
+        stringBytes += stringBytes(clinicId);
+        return newCode;
+    }
+
+    private String setString(String previous, String value) {
+        stringBytes += stringBytes(value) - stringBytes(previous);
+        return value;
+    }
+
+    // Objeto String más su byte[] con compact strings (Latin-1)
+    private static long stringBytes(String value) {
+        return value == null ? 0L : 40L + value.length();
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        if (value == null) {
+            return SnapshotColumns.NO_TIMESTAMP;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == SnapshotColumns.NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    // Columnas del mismo tamaño; al crecer se sustituyen todas a la vez para que una lectura optimista
+    // nunca combine arrays de tamaños distintos
+    private static final class SnapshotColumns {
+
+        private static final long NO_DEVICE = Long.MIN_VALUE;
+        private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+        private static final int NO_AGE = -1;
+        private static final byte NO_DIABETES_TYPE = -1;
+        private static final DiabetesType[] DIABETES_TYPES = DiabetesType.values();
+
+        private final long[] deviceIds;
+        private final int[] clinicCodes;
+        private final int[] ages;
+        private final float[] weights;
+        private final float[] heights;
+        private final byte[] diabetesTypes;
+        private final long[] lastActivityMicros;
+        private final String[] names;
+        private final String[] medicalIds;
+        private final String[] emails;
+        private final String[] phones;
+        private final String[] emergencyContacts;
+
+        private SnapshotColumns(int capacity) {
+            this(new long[capacity], new int[capacity], new int[capacity], new float[capacity], new float[capacity],
+                    new byte[capacity], new long[capacity], new String[capacity], new String[capacity],
+                    new String[capacity], new String[capacity], new String[capacity]);
+            Arrays.fill(deviceIds, NO_DEVICE);
+        }
+
+        private SnapshotColumns(long[] deviceIds, int[] clinicCodes, int[] ages, float[] weights, float[] heights,
+                                byte[] diabetesTypes, long[] lastActivityMicros, String[] names, String[] medicalIds,
+                                String[] emails, String[] phones, String[] emergencyContacts) {
+            this.deviceIds = deviceIds;
+            this.clinicCodes = clinicCodes;
+            this.ages = ages;
+            this.weights = weights;
+            this.heights = heights;
+            this.diabetesTypes = diabetesTypes;
+            this.lastActivityMicros = lastActivityMicros;
+            this.names = names;
+            this.medicalIds = medicalIds;
+            this.emails = emails;
+            this.phones = phones;
+            this.emergencyContacts = emergencyContacts;
+        }
+
+        private SnapshotColumns grow() {
+            int capacity = Math.max(INITIAL_CAPACITY, deviceIds.length * 2);
+            long[] grownDeviceIds = Arrays.copyOf(deviceIds, capacity);
+            Arrays.fill(grownDeviceIds, deviceIds.length, capacity, NO_DEVICE);
+            return new SnapshotColumns(grownDeviceIds, Arrays.copyOf(clinicCodes, capacity),
+                    Arrays.copyOf(ages, capacity), Arrays.copyOf(weights, capacity), Arrays.copyOf(heights, capacity),
+                    Arrays.copyOf(diabetesTypes, capacity), Arrays.copyOf(lastActivityMicros, capacity),
+                    Arrays.copyOf(names, capacity), Arrays.copyOf(medicalIds, capacity), Arrays.copyOf(emails, capacity),
+                    Arrays.copyOf(phones, capacity), Arrays.copyOf(emergencyContacts, capacity));
+        }
+
+        // Arrays primitivos y de referencias (oops comprimidos de 4 bytes), cabeceras incluidas
+        private long memoryBytes() {
+            long perSlot = 8 + 4 + 4 + 4 + 4 + 1 + 8 + 5 * 4;
+            return 12 * 16L + perSlot * deviceIds.length;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.insulinpump.patientservice.index;
+
+/**
+ * Pacientes cambiados por eventos mientras un índice hace su carga inicial. Los eventos se aplican
+ * tras el commit, así que una página leída antes del commit es más antigua que el evento: sus filas
+ * se descartan para no pisar el cambio ni resucitar a un paciente eliminado.
+ * El índice llama a todos los métodos bajo su bloqueo de escritura.
+ */
+final class LoadingChanges {
+
+    private LongLongHashMap changed = new LongLongHashMap();
+
+    void record(long patientId) {
+        if (changed != null) {
+            changed.put(patientId, 1L);
+        }
+    }
+
+    // La fila de la página está superada por un evento ya aplicado
+    boolean isStale(long patientId) {
+        return changed != null && changed.get(patientId, 0L) != 0L;
+    }
+
+    // Fin de la carga: los eventos se aplican sin filtro y se libera el mapa
+    void finish() {
+        changed = null;
+    }
+}
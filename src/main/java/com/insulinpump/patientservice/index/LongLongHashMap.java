@@ -0,0 +1,208 @@
+package com.insulinpump.patientservice.index;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mapa long→long de direccionamiento abierto (sondeo lineal) sobre dos arrays primitivos.
+ * Las lecturas son optimistas y sin bloqueo (StampedLock) y no reservan memoria;
+ * las escrituras se serializan con el bloqueo de escritura.
+ */
+public class LongLongHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double MAX_LOAD = 0.6;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public LongLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public long get(long key, long missingValue) {
+        checkKey(key);
+        long stamp = lock.tryOptimisticRead();
+        long result = find(key, missingValue);
+        if (lock.validate(stamp)) {
+            return result;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(key, missingValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(long key, long value) {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > keys.length * MAX_LOAD) {
+                rehash(keys.length * 2);
+            }
+            insert(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Elimina la clave solo si sigue apuntando al valor indicado
+    public boolean remove(long key, long expectedValue) {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(key);
+            if (slot < 0 || values[slot] != expectedValue) {
+                return false;
+            }
+            delete(slot);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            allocate(MIN_CAPACITY);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity() {
+        long stamp = lock.readLock();
+        try {
+            return keys.length;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Memoria ocupada por los dos arrays (cabeceras incluidas)
+    public long memoryBytes() {
+        return 2L * (16 + 8L * capacity());
+    }
+
+    private long find(long key, long missingValue) {
+        long[] k = keys;
+        long[] v = values;
+        if (k.length != v.length) {
+            // Redimensionado en curso: la validación del sello forzará la relectura
+            return missingValue;
+        }
+        int m = k.length - 1;
+        int slot = hash(key) & m;
+        // Como mucho una vuelta completa: una lectura concurrente nunca queda en bucle
+        for (int probes = 0; probes <= m; probes++) {
+            long current = k[slot];
+            if (current == key) {
+                return v[slot];
+            }
+            if (current == EMPTY) {
+                return missingValue;
+            }
+            slot = (slot + 1) & m;
+        }
+        return missingValue;
+    }
+
+    private int slotOf(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long key, long value) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[slot] = value;
+        keys[slot] = key;
+        size++;
+    }
+
+    // Borrado con desplazamiento hacia atrás: no deja lápidas en la tabla
+    private void delete(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        long[] newKeys = new long[capacity];
+        Arrays.fill(newKeys, EMPTY);
+        values = new long[capacity];
+        keys = newKeys;
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD);
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Clave no admitida: " + key);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.insulinpump.patientservice.index;
+
+import com.insulinpump.patientservice.dto.HistogramBucket;
+import com.insulinpump.patientservice.dto.PatientCohortStats;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.ArchivedPatient;
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.ArchivedPatientRepository;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Copia columnar en memoria de los atributos de pacientes que usa GET /api/patients/stats.
+ * Cada paciente ocupa un hueco (slot) en arrays primitivos; los huecos de pacientes eliminados
+ * se reutilizan. Las agregaciones recorren los arrays en paralelo con fork-join sin consultar MySQL.
+ * La población incluye los pacientes archivados: archivar o rehidratar solo cambia la tabla y no
+ * publica eventos, así que el paciente cuenta igual en ambas.
+ */
+@Component
+@Slf4j
+public class PatientColumnStore {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Huecos por tarea fork-join por debajo de los cuales se agrega secuencialmente
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+
+    private static final int ALL_TENANTS = -1;
+    private static final int NO_AGE = -1;
+    private static final byte NO_DIABETES_TYPE = -1;
+    private static final DiabetesType[] DIABETES_TYPES = DiabetesType.values();
+
+    static final int AGE_BUCKET_YEARS = 10;
+    static final int AGE_BUCKETS = 10;
+    // Categorías de IMC de la OMS
+    static final float[] BMI_LIMITS = {18.5f, 25f, 30f, 35f, 40f};
+    static final String[] BMI_LABELS = {"<18.5", "18.5-25", "25-30", "30-35", "35-40", ">=40"};
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SlotAllocator slots = new SlotAllocator();
+    private final PatientRepository patientRepository;
+    private final ArchivedPatientRepository archivedPatientRepository;
+
+    // Columnas; se protegen con lock y solo los huecos marcados en live contienen un paciente
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private float[] weights = new float[INITIAL_CAPACITY];
+    private float[] heights = new float[INITIAL_CAPACITY];
+    private byte[] diabetesTypes = new byte[INITIAL_CAPACITY];
+    private int[] tenantCodes = new int[INITIAL_CAPACITY];
+    private final BitSet deviceAssigned = new BitSet();
+    private final BitSet live = new BitSet();
+
+    // Diccionario de clínicas: cada columna guarda un código entero en vez del String
+    private final Map<String, Integer> tenantDictionary = new HashMap<>();
+
+    private final LoadingChanges loadingChanges = new LoadingChanges();
+
+    private volatile boolean loaded;
+
+    public PatientColumnStore(PatientRepository patientRepository, ArchivedPatientRepository archivedPatientRepository) {
+        this.patientRepository = patientRepository;
+        this.archivedPatientRepository = archivedPatientRepository;
+    }
+
+    public PatientCohortStats getCohortStats() {
+        long start = System.nanoTime();
+        String tenant = TenantContext.getCurrentTenant();
+        CohortAccumulator accumulator;
+        lock.readLock().lock();
+        try {
+            Integer tenantCode = TenantContext.ROOT_TENANT.equals(tenant)
+                    ? Integer.valueOf(ALL_TENANTS) : tenantDictionary.get(tenant);
+            // Clínica sin pacientes: no hay nada que recorrer
+            accumulator = tenantCode == null ? new CohortAccumulator()
+                    : ForkJoinPool.commonPool().invoke(new AggregationTask(tenantCode, 0, slots.highWaterMark()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return accumulator.toStats((System.nanoTime() - start) / 1_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        loadPages(after -> patientRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_PAGE_SIZE)));
+        loadPages(after -> archivedPatientRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_PAGE_SIZE))
+                .stream().map(ArchivedPatient::toPatient).toList());
+        lock.writeLock().lock();
+        try {
+            loadingChanges.finish();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loaded = true;
+        log.info("Instantánea columnar de pacientes cargada: {} pacientes en {} ms",
+                size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void loadPages(LongFunction<List<Patient>> nextPage) {
+        long lastId = 0L;
+        List<Patient> page;
+        do {
+            long after = lastId;
+            page = TenantContext.callAsRoot(() -> nextPage.apply(after));
+            lock.writeLock().lock();
+            try {
+                for (Patient patient : page) {
+                    if (!loadingChanges.isStale(patient.getId())) {
+                        upsert(patient);
+                    }
+                    lastId = patient.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            loadingChanges.record(event.getPatientId());
+            if (event.getType() == PatientChangedEvent.ChangeType.DELETED) {
+                remove(event.getPatientId());
+            } else {
+                upsert(event.getPatient());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private void upsert(Patient patient) {
+        int slot = slots.allocate(patient.getId());
+        if (slot == ages.length) {
+            grow();
+        }
+        ages[slot] = patient.getAge() != null ? patient.getAge() : NO_AGE;
+        weights[slot] = patient.getWeight() != null ? patient.getWeight() : Float.NaN;
+        heights[slot] = patient.getHeight() != null ? patient.getHeight() : Float.NaN;
+        diabetesTypes[slot] = patient.getDiabetesType() != null
+                ? (byte) patient.getDiabetesType().ordinal() : NO_DIABETES_TYPE;
+        tenantCodes[slot] = tenantDictionary.computeIfAbsent(
+                patient.getClinicId() != null ? patient.getClinicId() : TenantContext.DEFAULT_TENANT,
+                clinic -> tenantDictionary.size());
+        deviceAssigned.set(slot, patient.getDeviceId() != null);
+        live.set(slot);
+    }
+
+    private void remove(Long patientId) {
+        int slot = slots.release(patientId);
+        if (slot != SlotAllocator.NO_SLOT) {
+            live.clear(slot);
+            deviceAssigned.clear(slot);
+        }
+    }
+
+    private void grow() {
+        int capacity = ages.length * 2;
+        ages = Arrays.copyOf(ages, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        diabetesTypes = Arrays.copyOf(diabetesTypes, capacity);
+        tenantCodes = Arrays.copyOf(tenantCodes, capacity);
+    }
+
+    // Agrega un rango de huecos; los rangos grandes se dividen en mitades
+    private final class AggregationTask extends RecursiveTask<CohortAccumulator> {
+
+        private final int tenantCode;
+        private final int from;
+        private final int to;
+
+        private AggregationTask(int tenantCode, int from, int to) {
+            this.tenantCode = tenantCode;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CohortAccumulator compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return aggregate();
+            }
+            int middle = (from + to) >>> 1;
+            AggregationTask left = new AggregationTask(tenantCode, from, middle);
+            left.fork();
+            CohortAccumulator right = new AggregationTask(tenantCode, middle, to).compute();
+            return left.join().merge(right);
+        }
+
+        private CohortAccumulator aggregate() {
+            CohortAccumulator accumulator = new CohortAccumulator();
+            for (int slot = live.nextSetBit(from); slot >= 0 && slot < to; slot = live.nextSetBit(slot + 1)) {
+                if (tenantCode != ALL_TENANTS && tenantCodes[slot] != tenantCode) {
+                    continue;
+                }
+                accumulator.add(ages[slot], weights[slot], heights[slot], diabetesTypes[slot],
+                        deviceAssigned.get(slot));
+            }
+            return accumulator;
+        }
+    }
+
+    static final class CohortAccumulator {
+
+        private long total;
+        private long withDevice;
+        private final long[] byDiabetesType = new long[DIABETES_TYPES.length];
+        private final long[] ageBuckets = new long[AGE_BUCKETS];
+        private final long[] bmiBuckets = new long[BMI_LABELS.length];
+        private long ageCount;
+        private long ageSum;
+        private long bmiCount;
+        private double bmiSum;
+
+        void add(int age, float weight, float height, byte diabetesType, boolean hasDevice) {
+            total++;
+            if (hasDevice) {
+                withDevice++;
+            }
+            if (diabetesType != NO_DIABETES_TYPE) {
+                byDiabetesType[diabetesType]++;
+            }
+            if (age != NO_AGE) {
+                ageBuckets[Math.min(age / AGE_BUCKET_YEARS, AGE_BUCKETS - 1)]++;
+                ageCount++;
+                ageSum += age;
+            }
+            // NaN en cualquiera de los dos hace que la comparación sea falsa
+            if (weight > 0 && height > 0) {
+                float meters = height / 100f;
+                float bmi = weight / (meters * meters);
+                bmiBuckets[bmiBucket(bmi)]++;
+                bmiCount++;
+                bmiSum += bmi;
+            }
+        }
+
+        CohortAccumulator merge(CohortAccumulator other) {
+            total += other.total;
+            withDevice += other.withDevice;
+            for (int i = 0; i < byDiabetesType.length; i++) {
+                byDiabetesType[i] += other.byDiabetesType[i];
+            }
+            for (int i = 0; i < ageBuckets.length; i++) {
+                ageBuckets[i] += other.ageBuckets[i];
+            }
+            for (int i = 0; i < bmiBuckets.length; i++) {
+                bmiBuckets[i] += other.bmiBuckets[i];
+            }
+            ageCount += other.ageCount;
+            ageSum += other.ageSum;
+            bmiCount += other.bmiCount;
+            bmiSum += other.bmiSum;
+            return this;
+        }
+
+        private static int bmiBucket(float bmi) {
+            for (int i = 0; i < BMI_LIMITS.length; i++) {
+                if (bmi < BMI_LIMITS[i]) {
+                    return i;
+                }
+            }
+            return BMI_LIMITS.length;
+        }
+
+        PatientCohortStats toStats(long computeMicros) {
+            Map<String, Long> diabetes = new LinkedHashMap<>();
+            for (DiabetesType type : DIABETES_TYPES) {
+                diabetes.put(type.name(), byDiabetesType[type.ordinal()]);
+            }
+            List<HistogramBucket> ageHistogram = new ArrayList<>(AGE_BUCKETS);
+            for (int i = 0; i < AGE_BUCKETS; i++) {
+                int low = i * AGE_BUCKET_YEARS;
+                String label = i == AGE_BUCKETS - 1 ? low + "+" : low + "-" + (low + AGE_BUCKET_YEARS - 1);
+                ageHistogram.add(new HistogramBucket(label, ageBuckets[i]));
+            }
+            List<HistogramBucket> bmiHistogram = new ArrayList<>(BMI_LABELS.length);
+            for (int i = 0; i < BMI_LABELS.length; i++) {
+                bmiHistogram.add(new HistogramBucket(BMI_LABELS[i], bmiBuckets[i]));
+            }
+            return new PatientCohortStats(
+                    total,
+                    withDevice,
+                    total > 0 ? (double) withDevice / total : 0.0,
+                    diabetes,
+                    ageHistogram,
+                    bmiHistogram,
+                    ageCount > 0 ? (double) ageSum / ageCount : null,
+                    bmiCount > 0 ? bmiSum / bmiCount : null,
+                    computeMicros);
+        }
+    }
+}
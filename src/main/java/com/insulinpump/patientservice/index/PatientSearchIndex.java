@@ -0,0 +1,385 @@
+package com.insulinpump.patientservice.index;
+
+import com.insulinpump.patientservice.dto.PatientSearchResult;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para GET /api/patients/find sobre nombre, email, teléfono e ID médico.
+ * Cada término se indexa por sus trigramas y por sus prefijos de una y dos letras, sin acentos
+ * ni mayúsculas. Las consultas de tres o más caracteres buscan subcadenas; las más cortas, prefijos.
+ * Las listas de postings se particionan por clínica: la intersección solo recorre pacientes visibles
+ * para el tenant, y el tenant raíz combina los resultados de todas las particiones.
+ */
+@Component
+@Slf4j
+public class PatientSearchIndex {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final char PREFIX_MARK = '^';
+
+    // Peso de cada campo al puntuar; la coincidencia exacta de término vale más que la de prefijo o subcadena
+    private static final int MEDICAL_ID_WEIGHT = 4;
+    private static final int NAME_WEIGHT = 3;
+    private static final int EMAIL_WEIGHT = 2;
+    private static final int PHONE_WEIGHT = 2;
+
+    private static final Comparator<PatientSearchResult> RANKING = Comparator
+            .comparingInt(PatientSearchResult::getScore)
+            .thenComparing(PatientSearchResult::getId, Comparator.reverseOrder());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Clínica → clave → ids de paciente ordenados
+    private final Map<String, Map<String, PostingList>> postingsByClinic = new HashMap<>();
+
+    // Documentos en un array indexado por hueco
+    private final SlotAllocator slots = new SlotAllocator();
+    private Document[] documents = new Document[INITIAL_CAPACITY];
+    private final LoadingChanges loadingChanges = new LoadingChanges();
+    private final PatientRepository patientRepository;
+    private volatile boolean loaded;
+
+    public PatientSearchIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    public List<PatientSearchResult> search(String query, int limit) {
+        List<String> terms = tokenize(normalize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (String term : terms) {
+            keys.addAll(queryKeys(term));
+        }
+        String tenant = TenantContext.getCurrentTenant();
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<PatientSearchResult> top = new PriorityQueue<>(limit + 1, RANKING);
+            if (TenantContext.ROOT_TENANT.equals(tenant)) {
+                for (Map<String, PostingList> postings : postingsByClinic.values()) {
+                    collect(postings, keys, terms, limit, top);
+                }
+            } else {
+                Map<String, PostingList> postings = postingsByClinic.get(tenant);
+                if (postings != null) {
+                    collect(postings, keys, terms, limit, top);
+                }
+            }
+            List<PatientSearchResult> results = new ArrayList<>(top);
+            results.sort(RANKING.reversed());
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Intersecta las listas de una clínica y deja en top los limit mejores resultados
+    private void collect(Map<String, PostingList> postings, Set<String> keys, List<String> terms, int limit,
+                         PriorityQueue<PatientSearchResult> top) {
+        List<PostingList> lists = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            PostingList list = postings.get(key);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        // Se recorre la lista más corta y se comprueban las demás por búsqueda binaria
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList shortest = lists.get(0);
+
+        for (int i = 0; i < shortest.size(); i++) {
+            long id = shortest.get(i);
+            if (!inAll(lists, id)) {
+                continue;
+            }
+            Document document = documents[slots.slotOf(id)];
+            int score = document.score(terms);
+            if (score > 0) {
+                top.add(document.toResult(score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long lastId = 0L;
+        List<Patient> page;
+        do {
+            long after = lastId;
+            page = TenantContext.callAsRoot(
+                    () -> patientRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_PAGE_SIZE)));
+            lock.writeLock().lock();
+            try {
+                for (Patient patient : page) {
+                    if (!loadingChanges.isStale(patient.getId())) {
+                        add(new Document(patient));
+                    }
+                    lastId = patient.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        lock.writeLock().lock();
+        try {
+            loadingChanges.finish();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loaded = true;
+        log.info("Índice de búsqueda de pacientes cargado: {} pacientes, {} clínicas en {} ms",
+                size(), postingsByClinic.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        Patient patient = event.getPatient();
+        lock.writeLock().lock();
+        try {
+            loadingChanges.record(patient.getId());
+            remove(patient.getId());
+            if (event.getType() != PatientChangedEvent.ChangeType.DELETED) {
+                add(new Document(patient));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private void add(Document document) {
+        int slot = slots.allocate(document.id);
+        if (slot == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        } else if (documents[slot] != null) {
+            removePostings(documents[slot]);
+        }
+        documents[slot] = document;
+        Map<String, PostingList> postings = postingsByClinic.computeIfAbsent(document.clinicId, c -> new HashMap<>());
+        for (String key : document.indexKeys()) {
+            postings.computeIfAbsent(key, k -> new PostingList()).add(document.id);
+        }
+    }
+
+    private void remove(long patientId) {
+        int slot = slots.release(patientId);
+        if (slot != SlotAllocator.NO_SLOT) {
+            removePostings(documents[slot]);
+            documents[slot] = null;
+        }
+    }
+
+    private void removePostings(Document document) {
+        Map<String, PostingList> postings = postingsByClinic.get(document.clinicId);
+        if (postings == null) {
+            return;
+        }
+        for (String key : document.indexKeys()) {
+            PostingList list = postings.get(key);
+            if (list != null && list.remove(document.id) && list.size() == 0) {
+                postings.remove(key);
+            }
+        }
+        if (postings.isEmpty()) {
+            postingsByClinic.remove(document.clinicId);
+        }
+    }
+
+    private static boolean inAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sin acentos (NFD sin marcas combinantes), en minúsculas y con la puntuación convertida en espacios
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    // El teléfono se indexa como un único término de dígitos para encontrar "600123" en "+34 600-123-456"
+    static String normalizePhone(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static List<String> tokenize(String normalized) {
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split(" "));
+    }
+
+    private static List<String> queryKeys(String term) {
+        if (term.length() < 3) {
+            return List.of(PREFIX_MARK + term);
+        }
+        List<String> keys = new ArrayList<>(term.length() - 2);
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            keys.add(term.substring(i, i + 3));
+        }
+        return keys;
+    }
+
+    private static void termKeys(String term, Set<String> keys) {
+        keys.add(PREFIX_MARK + term.substring(0, 1));
+        if (term.length() >= 2) {
+            keys.add(PREFIX_MARK + term.substring(0, 2));
+        }
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            keys.add(term.substring(i, i + 3));
+        }
+    }
+
+    // Campos normalizados de un paciente y los datos que se devuelven en el resultado
+    private static final class Document {
+
+        private final long id;
+        private final String clinicId;
+        private final String name;
+        private final String medicalId;
+        private final String email;
+        private final String phone;
+        private final Long deviceId;
+
+        private final String normalizedName;
+        private final String normalizedMedicalId;
+        private final String normalizedEmail;
+        private final String normalizedPhone;
+
+        private Document(Patient patient) {
+            this.id = patient.getId();
+            this.clinicId = patient.getClinicId();
+            this.name = patient.getName();
+            this.medicalId = patient.getMedicalId();
+            this.email = patient.getEmail();
+            this.phone = patient.getPhone();
+            this.deviceId = patient.getDeviceId();
+            this.normalizedName = normalize(name);
+            this.normalizedMedicalId = normalize(medicalId);
+            this.normalizedEmail = normalize(email);
+            this.normalizedPhone = normalizePhone(phone);
+        }
+
+        private Set<String> indexKeys() {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String field : new String[]{normalizedName, normalizedMedicalId, normalizedEmail, normalizedPhone}) {
+                for (String term : tokenize(field)) {
+                    termKeys(term, keys);
+                }
+            }
+            return keys;
+        }
+
+        // Cada término de la consulta debe aparecer en algún campo; 0 descarta los falsos positivos de los trigramas
+        private int score(List<String> terms) {
+            int total = 0;
+            for (String term : terms) {
+                int best = Math.max(
+                        Math.max(MEDICAL_ID_WEIGHT * match(normalizedMedicalId, term), NAME_WEIGHT * match(normalizedName, term)),
+                        Math.max(EMAIL_WEIGHT * match(normalizedEmail, term), PHONE_WEIGHT * match(normalizedPhone, term)));
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        // 3 = término exacto, 2 = prefijo de término, 1 = subcadena (solo consultas de 3 o más caracteres)
+        private static int match(String field, String term) {
+            int best = 0;
+            int from = 0;
+            int pos;
+            while ((pos = field.indexOf(term, from)) >= 0) {
+                boolean startsTerm = pos == 0 || field.charAt(pos - 1) == ' ';
+                int end = pos + term.length();
+                boolean endsTerm = end == field.length() || field.charAt(end) == ' ';
+                if (startsTerm && endsTerm) {
+                    return 3;
+                }
+                if (startsTerm) {
+                    best = 2;
+                } else if (term.length() >= 3) {
+                    best = Math.max(best, 1);
+                }
+                from = pos + 1;
+            }
+            return best;
+        }
+
+        private PatientSearchResult toResult(int score) {
+            return new PatientSearchResult(id, name, medicalId, email, phone, deviceId, score);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.insulinpump.patientservice.index;
+
+import java.util.Arrays;
+
+/**
+ * Huecos (slots) de los arrays de un índice en memoria: un LongLongHashMap id → hueco y una pila
+ * primitiva de huecos liberados, que se reutilizan antes de crecer. Las escrituras deben
+ * serializarse con el bloqueo de escritura del índice que lo usa.
+ */
+final class SlotAllocator {
+
+    static final int NO_SLOT = -1;
+
+    private final LongLongHashMap slotsById = new LongLongHashMap();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWaterMark;
+
+    int slotOf(long id) {
+        return (int) slotsById.get(id, NO_SLOT);
+    }
+
+    // Hueco del id; si no tiene, reutiliza uno libre o toma el siguiente (el llamador amplía sus arrays)
+    int allocate(long id) {
+        int slot = slotOf(id);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+        slot = freeCount > 0 ? freeSlots[--freeCount] : highWaterMark++;
+        slotsById.put(id, slot);
+        return slot;
+    }
+
+    // Devuelve el hueco liberado, o NO_SLOT si el id no tenía
+    int release(long id) {
+        int slot = slotOf(id);
+        if (slot != NO_SLOT) {
+            slotsById.remove(id, slot);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+        return slot;
+    }
+
+    int size() {
+        return slotsById.size();
+    }
+
+    // Límite superior de los huecos usados: los recorridos van de 0 a highWaterMark
+    int highWaterMark() {
+        return highWaterMark;
+    }
+
+    long memoryBytes() {
+        return slotsById.memoryBytes() + 16 + 4L * freeSlots.length;
+    }
+}
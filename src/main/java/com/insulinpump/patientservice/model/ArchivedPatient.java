@@ -0,0 +1,71 @@
+package com.insulinpump.patientservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// Paciente inactivo sin dispositivo, fuera de la tabla principal. Conserva su ID original.
+@Entity
+@Table(name = "pacientes_archivo",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pacientes_archivo_clinica_medical_id", columnNames = {"clinic_id", "medical_id"}))
+@Data
+@NoArgsConstructor
+public class ArchivedPatient {
+
+    @Id
+    private Long id;
+
+    @TenantId
+    @Column(name = "clinic_id", nullable = false, updatable = false, length = 64)
+    private String clinicId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private Integer age;
+
+    @Column(nullable = false)
+    private String medicalId;
+
+    private Long deviceId;
+
+    @Enumerated(EnumType.STRING)
+    private DiabetesType diabetesType;
+
+    private String email;
+
+    private String phone;
+
+    private Float weight;
+
+    private Float height;
+
+    private String emergencyContact;
+
+    private LocalDateTime lastActivityAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Patient toPatient() {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setClinicId(clinicId);
+        patient.setName(name);
+        patient.setAge(age);
+        patient.setMedicalId(medicalId);
+        patient.setDeviceId(deviceId);
+        patient.setDiabetesType(diabetesType);
+        patient.setEmail(email);
+        patient.setPhone(phone);
+        patient.setWeight(weight);
+        patient.setHeight(height);
+        patient.setEmergencyContact(emergencyContact);
+        patient.setLastActivityAt(lastActivityAt);
+        return patient;
+    }
+}
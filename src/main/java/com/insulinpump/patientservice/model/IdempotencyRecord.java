@@ -0,0 +1,39 @@
+package com.insulinpump.patientservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Nivel persistente opcional del almacén de claves de idempotencia
+@Entity
+@Table(name = "claves_idempotencia", indexes = @Index(name = "idx_claves_idempotencia_expira", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // Incluye clínica, método y ruta además de la cabecera Idempotency-Key
+    @Id
+    @Column(name = "scoped_key", length = 512)
+    private String scopedKey;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    private String contentType;
+
+    private String location;
+
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] body;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
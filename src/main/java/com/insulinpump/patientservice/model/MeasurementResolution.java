@@ -0,0 +1,7 @@
+package com.insulinpump.patientservice.model;
+
+public enum MeasurementResolution {
+    RAW,
+    DAILY,
+    WEEKLY
+}
@@ -1,5 +1,6 @@
 package com.insulinpump.patientservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -8,9 +9,16 @@ import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "pacientes")
+@Table(name = "pacientes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pacientes_clinica_medical_id", columnNames = {"clinic_id", "medical_id"}),
+        indexes = @Index(name = "idx_pacientes_clinica_device", columnList = "clinic_id, device_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +28,13 @@ public class Patient {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Clínica propietaria: Hibernate la asigna al insertar y la añade a todas las consultas
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("'default'")
+    @Column(name = "clinic_id", nullable = false, updatable = false, length = 64)
+    private String clinicId;
+
     @NotBlank(message = "El nombre es obligatorio")
     @Column(nullable = false)
     private String name;
@@ -30,7 +45,7 @@ public class Patient {
     private Integer age;
 
     @NotBlank(message = "El ID médico es obligatorio")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String medicalId;
 
     private Long deviceId;
@@ -51,4 +66,11 @@ public class Patient {
     private Float height;
 
     private String emergencyContact;
+
+    // Última escritura del paciente; el archivador mueve a pacientes_archivo los inactivos.
+    // El valor por defecto rellena las filas existentes al añadir la columna: su inactividad empieza a contar ahí
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime lastActivityAt;
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.insulinpump.patientservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Historial de peso/altura: solo se insertan filas, nunca se actualizan
+@Entity
+@Table(name = "mediciones_paciente")
+@Data
+@NoArgsConstructor
+public class PatientMeasurement implements Persistable<PatientMeasurementId> {
+
+    @EmbeddedId
+    private PatientMeasurementId id;
+
+    @TenantId
+    @Column(name = "clinic_id", nullable = false, updatable = false, length = 64)
+    private String clinicId;
+
+    private Float weight;
+
+    private Float height;
+
+    private Float bmi;
+
+    // Clave asignada: sin esto save() haría un SELECT previo (merge) por cada fila
+    @Transient
+    private boolean newEntity = true;
+
+    public PatientMeasurement(Long patientId, LocalDateTime measuredAt, Float weight, Float height) {
+        this.id = new PatientMeasurementId(patientId, measuredAt);
+        this.weight = weight;
+        this.height = height;
+        this.bmi = bmiOf(weight, height);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
+    // Altura en centímetros
+    public static Float bmiOf(Float weight, Float height) {
+        if (weight == null || height == null || height <= 0) {
+            return null;
+        }
+        float meters = height / 100f;
+        return weight / (meters * meters);
+    }
+}
@@ -0,0 +1,20 @@
+package com.insulinpump.patientservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Clave (paciente, instante): agrupa físicamente el historial de cada paciente en orden temporal.
+// Es un record porque Hibernate ordena alfabéticamente las columnas de una clase @Embeddable
+// y la clave saldría (measured_at, patient_id); los componentes de un record conservan su orden.
+@Embeddable
+public record PatientMeasurementId(
+        @Column(name = "patient_id", nullable = false)
+        Long patientId,
+
+        @Column(name = "measured_at", nullable = false, columnDefinition = "DATETIME(6)")
+        LocalDateTime measuredAt
+) implements Serializable {
+}
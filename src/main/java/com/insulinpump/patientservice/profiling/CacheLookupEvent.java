@@ -0,0 +1,36 @@
+package com.insulinpump.patientservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(CacheLookupEvent.NAME)
+@Label("Patient Cache Lookup")
+@Description("Consulta a una estructura en memoria del servicio de pacientes")
+@Category({"Patient Service", "Cache"})
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.insulinpump.patient.CacheLookup";
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    boolean hit;
+
+    public static void emit(String cache, long key, boolean hit) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.key = Long.toString(key);
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.insulinpump.patientservice.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Emite eventos JFR por cada operación del servicio y llamada al repositorio.
+// Si no hay ninguna grabación activa con estos eventos, el coste es una comprobación de isEnabled().
+@Aspect
+@Component
+public class JfrProfilingAspect {
+
+    @Around("execution(public * com.insulinpump.patientservice.service.PatientService.*(..))")
+    public Object profileServiceOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        PatientOperationEvent event = new PatientOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = joinPoint.getSignature().getName();
+                event.key = keyOf(joinPoint.getArgs());
+                event.rows = rowsOf(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // Solo repositorios de Spring Data con retorno bloqueante: en un Mono o Flux la llamada solo ensambla
+    // la consulta, así que la duración y las filas del evento no reflejarían la consulta real
+    @Around("execution(* com.insulinpump.patientservice.repository..*+.*(..))"
+            + " && target(org.springframework.data.repository.Repository)"
+            + " && !execution(org.reactivestreams.Publisher+ *(..))")
+    public Object profileRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                        + "." + joinPoint.getSignature().getName();
+                event.key = keyOf(joinPoint.getArgs());
+                event.rows = rowsOf(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // Solo identificadores numéricos internos: los textos pueden ser IDs médicos, nombres o emails
+    static String keyOf(Object[] args) {
+        if (args.length == 0 || args[0] == null) {
+            return null;
+        }
+        Object first = args[0];
+        if (first instanceof Number) {
+            return first.toString();
+        }
+        if (first instanceof CharSequence) {
+            return null;
+        }
+        return first.getClass().getSimpleName();
+    }
+
+    static int rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Boolean || result instanceof Number) {
+            return 0;
+        }
+        return 1;
+    }
+}
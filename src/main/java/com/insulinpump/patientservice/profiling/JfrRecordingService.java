@@ -0,0 +1,102 @@
+package com.insulinpump.patientservice.profiling;
+
+import com.insulinpump.patientservice.exception.ProfilingStateException;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Service
+@Slf4j
+public class JfrRecordingService {
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final Duration eventThreshold;
+
+    private Recording recording;
+    private Path lastDump;
+
+    public JfrRecordingService(@Value("${patients.profiling.max-duration-seconds:300}") long maxDurationSeconds,
+                               @Value("${patients.profiling.max-size-mb:64}") long maxSizeMb,
+                               @Value("${patients.profiling.event-threshold-ms:0}") long eventThresholdMillis) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.eventThreshold = Duration.ofMillis(eventThresholdMillis);
+    }
+
+    public synchronized void start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new ProfilingStateException("Ya hay una grabación JFR en curso");
+        }
+        closeRecording();
+
+        Duration bounded = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        // Sin la configuración "default" del JDK: sus eventos incluyen argumentos de la JVM y variables de entorno
+        Recording newRecording = new Recording();
+        newRecording.setName("patient-service-on-demand");
+        newRecording.setDuration(bounded);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.setToDisk(true);
+        newRecording.enable(PatientOperationEvent.NAME).withThreshold(eventThreshold);
+        newRecording.enable(RepositoryCallEvent.NAME).withThreshold(eventThreshold);
+        newRecording.enable(CacheLookupEvent.NAME);
+        newRecording.start();
+        recording = newRecording;
+        log.info("Grabación JFR iniciada (duración máxima {}, tamaño máximo {} bytes)", bounded, maxSizeBytes);
+    }
+
+    // Detiene la grabación (si sigue activa) y la vuelca a un fichero temporal
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new ProfilingStateException("No hay ninguna grabación JFR que detener");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path dump = Files.createTempFile("patient-service-", ".jfr");
+            recording.dump(dump);
+            deleteLastDump();
+            lastDump = dump;
+            log.info("Grabación JFR detenida y volcada en {}", dump);
+            return dump;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo volcar la grabación JFR", e);
+        } finally {
+            closeRecording();
+        }
+    }
+
+    public synchronized Path getLastDump() {
+        if (lastDump == null) {
+            throw new ProfilingStateException("No hay ninguna grabación JFR disponible");
+        }
+        return lastDump;
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void deleteLastDump() throws IOException {
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+            lastDump = null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.insulinpump.patientservice.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Resume una grabación JFR en un informe de las operaciones más lentas.
+// De cada evento solo se conserva su duración; los eventos completos, únicamente los top N más lentos.
+@Component
+public class JfrSummarizer {
+
+    private static final Set<String> PATIENT_EVENTS = Set.of(PatientOperationEvent.NAME, RepositoryCallEvent.NAME);
+    private static final Comparator<SlowEvent> BY_DURATION = Comparator.comparingDouble(SlowEvent::getDurationMillis);
+
+    public ProfilingReport summarize(Path recording, int top) {
+        int topN = Math.max(1, top);
+        Map<String, OperationStats> byOperation = new HashMap<>();
+        PriorityQueue<SlowEvent> slowest = new PriorityQueue<>(topN + 1, BY_DURATION);
+        long total = 0;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (!PATIENT_EVENTS.contains(type)) {
+                    continue;
+                }
+                total++;
+                String operation = event.getString("operation");
+                double millis = millisOf(event);
+                boolean failed = event.getBoolean("failed");
+                byOperation.computeIfAbsent(type + "#" + operation,
+                                k -> new OperationStats(event.getEventType().getLabel(), operation))
+                        .add(millis, failed);
+                if (slowest.size() < topN || millis > slowest.peek().getDurationMillis()) {
+                    slowest.add(toSlowEvent(event, millis));
+                    if (slowest.size() > topN) {
+                        slowest.poll();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la grabación JFR " + recording, e);
+        }
+
+        List<OperationSummary> operations = byOperation.values().stream()
+                .map(OperationStats::toSummary)
+                .sorted(Comparator.comparingDouble(OperationSummary::getTotalMillis).reversed())
+                .limit(topN)
+                .toList();
+
+        List<SlowEvent> slowestEvents = slowest.stream()
+                .sorted(BY_DURATION.reversed())
+                .toList();
+
+        return new ProfilingReport(total, operations, slowestEvents);
+    }
+
+    private static SlowEvent toSlowEvent(RecordedEvent event, double millis) {
+        return new SlowEvent(
+                event.getEventType().getLabel(),
+                event.getString("operation"),
+                event.getString("key"),
+                event.getInt("rows"),
+                event.getBoolean("failed"),
+                millis,
+                event.getStartTime()
+        );
+    }
+
+    private static double millisOf(RecordedEvent event) {
+        return event.getDuration().toNanos() / 1_000_000.0;
+    }
+
+    // Duraciones de una operación en un array primitivo que crece por duplicación
+    private static final class OperationStats {
+
+        private final String eventType;
+        private final String operation;
+        private double[] millis = new double[16];
+        private int count;
+        private double totalMillis;
+        private long failures;
+
+        private OperationStats(String eventType, String operation) {
+            this.eventType = eventType;
+            this.operation = operation;
+        }
+
+        private void add(double durationMillis, boolean failed) {
+            if (count == millis.length) {
+                millis = Arrays.copyOf(millis, count * 2);
+            }
+            millis[count++] = durationMillis;
+            totalMillis += durationMillis;
+            if (failed) {
+                failures++;
+            }
+        }
+
+        private OperationSummary toSummary() {
+            double[] sorted = Arrays.copyOf(millis, count);
+            Arrays.sort(sorted);
+            int p99Index = Math.max(0, (int) Math.ceil(count * 0.99) - 1);
+            return new OperationSummary(
+                    eventType,
+                    operation,
+                    count,
+                    totalMillis,
+                    totalMillis / count,
+                    sorted[p99Index],
+                    sorted[count - 1],
+                    (double) failures / count
+            );
+        }
+    }
+}
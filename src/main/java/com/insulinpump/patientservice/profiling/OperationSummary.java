@@ -0,0 +1,19 @@
+package com.insulinpump.patientservice.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperationSummary {
+    private String eventType;
+    private String operation;
+    private long count;
+    private double totalMillis;
+    private double avgMillis;
+    private double p99Millis;
+    private double maxMillis;
+    private double failureRatio;
+}
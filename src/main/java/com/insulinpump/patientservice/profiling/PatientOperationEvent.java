@@ -0,0 +1,29 @@
+package com.insulinpump.patientservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(PatientOperationEvent.NAME)
+@Label("Patient Service Operation")
+@Description("Ejecución de una operación de PatientService")
+@Category({"Patient Service", "Service"})
+@StackTrace(false)
+public class PatientOperationEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.insulinpump.patient.ServiceOperation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    String key;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,75 @@
+package com.insulinpump.patientservice.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insulinpump.patientservice.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+
+// Exige la cabecera X-Admin-Token en /admin/profiling: las grabaciones revelan el funcionamiento interno del servicio
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "patients.profiling.enabled", havingValue = "true")
+@Slf4j
+public class ProfilingAuthFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private static final String PROFILING_PATH = "/admin/profiling";
+
+    private final ObjectMapper objectMapper;
+    private final byte[] token;
+
+    public ProfilingAuthFilter(ObjectMapper objectMapper, @Value("${patients.profiling.token:}") String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalStateException("patients.profiling.token es obligatorio cuando el perfilado está activo");
+        }
+        this.objectMapper = objectMapper;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PROFILING_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String provided = request.getHeader(TOKEN_HEADER);
+        // Comparación en tiempo constante para no filtrar el token por temporización
+        if (provided == null || !MessageDigest.isEqual(token, provided.getBytes(StandardCharsets.UTF_8))) {
+            reject(request, response);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.warn("Acceso denegado a {} {} desde {}", request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.UNAUTHORIZED.value(),
+                "Se requiere la cabecera " + TOKEN_HEADER + " válida",
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,16 @@
+package com.insulinpump.patientservice.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfilingReport {
+    private long totalEvents;
+    private List<OperationSummary> operations;
+    private List<SlowEvent> slowestEvents;
+}
@@ -0,0 +1,29 @@
+package com.insulinpump.patientservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RepositoryCallEvent.NAME)
+@Label("Patient Repository Call")
+@Description("Llamada a un repositorio de Spring Data")
+@Category({"Patient Service", "Repository"})
+@StackTrace(false)
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.insulinpump.patient.RepositoryCall";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    String key;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,20 @@
+package com.insulinpump.patientservice.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowEvent {
+    private String eventType;
+    private String operation;
+    private String key;
+    private int rows;
+    private boolean failed;
+    private double durationMillis;
+    private Instant startTime;
+}
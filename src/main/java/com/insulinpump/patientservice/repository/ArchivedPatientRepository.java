@@ -0,0 +1,63 @@
+package com.insulinpump.patientservice.repository;
+
+import com.insulinpump.patientservice.model.ArchivedPatient;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedPatientRepository extends JpaRepository<ArchivedPatient, Long> {
+
+    Optional<ArchivedPatient> findByMedicalId(String medicalId);
+
+    boolean existsByMedicalId(String medicalId);
+
+    List<ArchivedPatient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Las consultas nativas no aplican el filtro de clínica: solo las usan el archivador
+    // y la rehidratación, que antes comprueba la clínica con findById
+
+    // Sin actividad registrada no se sabe cuándo se usó el paciente: el reloj empieza ahora, nunca se archiva
+    @Modifying
+    @Query(value = "UPDATE pacientes SET last_activity_at = :now WHERE last_activity_at IS NULL", nativeQuery = true)
+    int startActivityClock(@Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT id FROM pacientes WHERE id > :afterId AND device_id IS NULL " +
+            "AND last_activity_at < :cutoff ORDER BY id",
+            nativeQuery = true)
+    List<Long> findColdPatientIds(@Param("afterId") Long afterId, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO pacientes_archivo (id, clinic_id, name, age, medical_id, device_id, diabetes_type, " +
+            "email, phone, weight, height, emergency_contact, last_activity_at, archived_at) " +
+            "SELECT id, clinic_id, name, age, medical_id, device_id, diabetes_type, email, phone, weight, height, " +
+            "emergency_contact, last_activity_at, :now FROM pacientes " +
+            "WHERE id IN (:ids) AND device_id IS NULL AND last_activity_at < :cutoff",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE p FROM pacientes p JOIN pacientes_archivo a ON a.id = p.id WHERE p.id IN (:ids)",
+            nativeQuery = true)
+    int deleteArchivedFromHot(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO pacientes (id, clinic_id, name, age, medical_id, device_id, diabetes_type, " +
+            "email, phone, weight, height, emergency_contact, last_activity_at) " +
+            "SELECT id, clinic_id, name, age, medical_id, device_id, diabetes_type, email, phone, weight, height, " +
+            "emergency_contact, :now FROM pacientes_archivo WHERE id = :id",
+            nativeQuery = true)
+    int copyToHot(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM pacientes_archivo WHERE id = :id", nativeQuery = true)
+    int deleteFromArchive(@Param("id") Long id);
+}
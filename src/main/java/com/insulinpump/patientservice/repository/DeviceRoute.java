@@ -0,0 +1,9 @@
+package com.insulinpump.patientservice.repository;
+
+// Proyección deviceId → id usada para cargar la tabla de rutas de dispositivos
+public interface DeviceRoute {
+
+    Long getDeviceId();
+
+    Long getId();
+}
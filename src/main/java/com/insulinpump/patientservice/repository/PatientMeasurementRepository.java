@@ -0,0 +1,34 @@
+package com.insulinpump.patientservice.repository;
+
+import com.insulinpump.patientservice.model.PatientMeasurement;
+import com.insulinpump.patientservice.model.PatientMeasurementId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PatientMeasurementRepository extends JpaRepository<PatientMeasurement, PatientMeasurementId> {
+
+    // Rango por clave primaria (patient_id, measured_at): nunca toca filas de otros pacientes
+    @Query("SELECT m FROM PatientMeasurement m WHERE m.id.patientId = :patientId " +
+            "AND m.id.measuredAt > :after AND m.id.measuredAt < :to ORDER BY m.id.measuredAt")
+    List<PatientMeasurement> findRangeAfter(@Param("patientId") Long patientId,
+                                            @Param("after") LocalDateTime after,
+                                            @Param("to") LocalDateTime to,
+                                            Pageable pageable);
+
+    @Query("SELECT m FROM PatientMeasurement m WHERE m.id.patientId = :patientId AND m.id.measuredAt IN :timestamps")
+    List<PatientMeasurement> findExisting(@Param("patientId") Long patientId,
+                                          @Param("timestamps") Collection<LocalDateTime> timestamps);
+
+    @Modifying
+    @Query("DELETE FROM PatientMeasurement m WHERE m.id.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+}
@@ -1,8 +1,11 @@
 package com.insulinpump.patientservice.repository;
 
 import com.insulinpump.patientservice.model.Patient;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +24,12 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     List<Patient> findByDiabetesType(String diabetesType);
 
     boolean existsByMedicalId(String medicalId);
+
+    // Paginación por clave (keyset) para el listado en streaming
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Patient> findByDeviceIdIsNotNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT p.deviceId AS deviceId, p.id AS id FROM Patient p WHERE p.deviceId IS NOT NULL AND p.id > :id ORDER BY p.id")
+    List<DeviceRoute> findDeviceRoutesAfter(@Param("id") Long id, Pageable pageable);
 }
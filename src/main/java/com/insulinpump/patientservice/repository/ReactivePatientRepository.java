@@ -0,0 +1,100 @@
+package com.insulinpump.patientservice.repository;
+
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lecturas de pacientes sobre R2DBC, sin bloquear hilos mientras MySQL responde.
+ * El filtro de clínica de Hibernate no aplica aquí: cada consulta recibe la clínica explícitamente
+ * y solo el tenant raíz consulta sin filtrar.
+ */
+@Repository
+@ConditionalOnProperty(name = "patients.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactivePatientRepository {
+
+    private static final String COLUMNS = "id, clinic_id, name, age, medical_id, device_id, diabetes_type, " +
+            "email, phone, weight, height, emergency_contact, last_activity_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactivePatientRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Mono<Patient> findById(String tenant, Long id) {
+        return selectOne("pacientes", tenant, "id = :value", id);
+    }
+
+    public Mono<Patient> findByMedicalId(String tenant, String medicalId) {
+        return selectOne("pacientes", tenant, "medical_id = :value", medicalId);
+    }
+
+    // Usa el índice (clinic_id, device_id)
+    public Mono<Patient> findByDeviceId(String tenant, Long deviceId) {
+        return selectOne("pacientes", tenant, "device_id = :value", deviceId);
+    }
+
+    public Mono<Patient> findArchivedById(String tenant, Long id) {
+        return selectOne("pacientes_archivo", tenant, "id = :value", id);
+    }
+
+    public Mono<Patient> findArchivedByMedicalId(String tenant, String medicalId) {
+        return selectOne("pacientes_archivo", tenant, "medical_id = :value", medicalId);
+    }
+
+    // Una sola consulta en streaming: el driver pide filas a MySQL según la demanda del suscriptor
+    public Flux<Patient> findAll(String tenant, int fetchSize) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("SELECT " + COLUMNS + " FROM pacientes" + (isRoot(tenant) ? "" : " WHERE clinic_id = :clinic")
+                        + " ORDER BY id")
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)));
+        if (!isRoot(tenant)) {
+            spec = spec.bind("clinic", tenant);
+        }
+        return spec.map(ReactivePatientRepository::toPatient).all();
+    }
+
+    // LIMIT 1 y one() en lugar de first(): cancelar a mitad del resultado puede dejar la conexión sin devolver al pool
+    private Mono<Patient> selectOne(String table, String tenant, String condition, Object value) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("SELECT " + COLUMNS + " FROM " + table + " WHERE " + condition
+                        + (isRoot(tenant) ? "" : " AND clinic_id = :clinic") + " LIMIT 1")
+                .bind("value", value);
+        if (!isRoot(tenant)) {
+            spec = spec.bind("clinic", tenant);
+        }
+        return spec.map(ReactivePatientRepository::toPatient).one();
+    }
+
+    private static boolean isRoot(String tenant) {
+        return TenantContext.ROOT_TENANT.equals(tenant);
+    }
+
+    private static Patient toPatient(Readable row) {
+        Patient patient = new Patient();
+        patient.setId(row.get("id", Long.class));
+        patient.setClinicId(row.get("clinic_id", String.class));
+        patient.setName(row.get("name", String.class));
+        patient.setAge(row.get("age", Integer.class));
+        patient.setMedicalId(row.get("medical_id", String.class));
+        patient.setDeviceId(row.get("device_id", Long.class));
+        String diabetesType = row.get("diabetes_type", String.class);
+        patient.setDiabetesType(diabetesType != null ? DiabetesType.valueOf(diabetesType) : null);
+        patient.setEmail(row.get("email", String.class));
+        patient.setPhone(row.get("phone", String.class));
+        patient.setWeight(row.get("weight", Float.class));
+        patient.setHeight(row.get("height", Float.class));
+        patient.setEmergencyContact(row.get("emergency_contact", String.class));
+        patient.setLastActivityAt(row.get("last_activity_at", LocalDateTime.class));
+        return patient;
+    }
+}
@@ -0,0 +1,70 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.model.ArchivedPatient;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.ArchivedPatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientArchiveService {
+
+    private final ArchivedPatientRepository archivedPatientRepository;
+
+    public Optional<Patient> findArchivedById(Long id) {
+        return archivedPatientRepository.findById(id).map(ArchivedPatient::toPatient);
+    }
+
+    public Optional<Patient> findArchivedByMedicalId(String medicalId) {
+        return archivedPatientRepository.findByMedicalId(medicalId).map(ArchivedPatient::toPatient);
+    }
+
+    public boolean existsArchivedByMedicalId(String medicalId) {
+        return archivedPatientRepository.existsByMedicalId(medicalId);
+    }
+
+    // Devuelve el paciente a la tabla principal. findById aplica el filtro de clínica
+    // antes de ejecutar las sentencias nativas.
+    @Transactional
+    public boolean rehydrate(Long id) {
+        if (!archivedPatientRepository.existsById(id)) {
+            return false;
+        }
+        log.info("Rehidratando paciente archivado con ID: {}", id);
+        archivedPatientRepository.copyToHot(id, LocalDateTime.now());
+        archivedPatientRepository.deleteFromArchive(id);
+        return true;
+    }
+
+    // Fija la actividad de los pacientes sin fecha (anteriores a la columna) para que no cuenten como fríos
+    @Transactional
+    public int startActivityClock(LocalDateTime now) {
+        int updated = archivedPatientRepository.startActivityClock(now);
+        if (updated > 0) {
+            log.info("Fecha de actividad inicializada para {} pacientes sin registro previo", updated);
+        }
+        return updated;
+    }
+
+    // Mueve un lote de pacientes fríos; devuelve el último ID examinado o null si no quedan
+    @Transactional
+    public Long archiveBatch(Long afterId, LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = archivedPatientRepository.findColdPatientIds(afterId, cutoff, PageRequest.ofSize(batchSize));
+        if (ids.isEmpty()) {
+            return null;
+        }
+        int copied = archivedPatientRepository.copyToArchive(ids, cutoff, LocalDateTime.now());
+        int deleted = archivedPatientRepository.deleteArchivedFromHot(ids);
+        log.info("Archivados {} pacientes inactivos ({} eliminados de la tabla principal)", copied, deleted);
+        return ids.get(ids.size() - 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Mueve periódicamente a pacientes_archivo los pacientes sin dispositivo y sin actividad reciente
+@Component
+@ConditionalOnProperty(name = "patients.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PatientArchiver {
+
+    private final PatientArchiveService archiveService;
+    private final int inactiveDays;
+    private final int batchSize;
+    private final long pauseBetweenBatchesMillis;
+
+    public PatientArchiver(PatientArchiveService archiveService,
+                           @Value("${patients.archive.inactive-days:730}") int inactiveDays,
+                           @Value("${patients.archive.batch-size:500}") int batchSize,
+                           @Value("${patients.archive.pause-between-batches-ms:200}") long pauseBetweenBatchesMillis) {
+        this.archiveService = archiveService;
+        this.inactiveDays = inactiveDays;
+        this.batchSize = batchSize;
+        this.pauseBetweenBatchesMillis = pauseBetweenBatchesMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${patients.archive.interval-minutes:360}",
+            initialDelayString = "${patients.archive.initial-delay-minutes:10}",
+            timeUnit = TimeUnit.MINUTES)
+    public void archiveColdPatients() {
+        TenantContext.callAsRoot(() -> archiveService.startActivityClock(LocalDateTime.now()));
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(inactiveDays);
+        log.info("Archivando pacientes sin dispositivo inactivos desde {}", cutoff);
+        // Cada lote es una transacción corta; la pausa limita el impacto sobre la carga en línea
+        Long lastId = 0L;
+        while ((lastId = nextBatch(lastId, cutoff)) != null) {
+            try {
+                Thread.sleep(pauseBetweenBatchesMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Long nextBatch(Long afterId, LocalDateTime cutoff) {
+        return TenantContext.callAsRoot(() -> archiveService.archiveBatch(afterId, cutoff, batchSize));
+    }
+}
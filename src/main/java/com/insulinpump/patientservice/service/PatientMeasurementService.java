@@ -0,0 +1,168 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.dto.MeasurementPoint;
+import com.insulinpump.patientservice.dto.MeasurementRequest;
+import com.insulinpump.patientservice.exception.MeasurementConflictException;
+import com.insulinpump.patientservice.exception.PatientNotFoundException;
+import com.insulinpump.patientservice.model.MeasurementResolution;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.model.PatientMeasurement;
+import com.insulinpump.patientservice.repository.ArchivedPatientRepository;
+import com.insulinpump.patientservice.repository.PatientMeasurementRepository;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientMeasurementService {
+
+    private final PatientMeasurementRepository measurementRepository;
+    private final PatientRepository patientRepository;
+    private final ArchivedPatientRepository archivedPatientRepository;
+
+    @Value("${patients.measurements.page-size:1000}")
+    private int pageSize = 1000;
+
+    // Se llama dentro de la transacción de createPatient/updatePatient
+    public void recordIfChanged(Float previousWeight, Float previousHeight, Patient patient) {
+        if (patient.getWeight() == null && patient.getHeight() == null) {
+            return;
+        }
+        if (Objects.equals(previousWeight, patient.getWeight()) && Objects.equals(previousHeight, patient.getHeight())) {
+            return;
+        }
+        measurementRepository.save(new PatientMeasurement(
+                patient.getId(), LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), patient.getWeight(), patient.getHeight()));
+    }
+
+    @Transactional
+    public int appendMeasurements(Long patientId, List<MeasurementRequest> measurements) {
+        log.info("Registrando {} mediciones para el paciente {}", measurements.size(), patientId);
+        checkPatientExists(patientId);
+
+        // Un instante repetido en el lote se registra una vez si los valores coinciden; si no, es un conflicto
+        Map<LocalDateTime, PatientMeasurement> batch = new LinkedHashMap<>();
+        for (MeasurementRequest request : measurements) {
+            PatientMeasurement measurement = new PatientMeasurement(patientId,
+                    request.getMeasuredAt().truncatedTo(ChronoUnit.MICROS), request.getWeight(), request.getHeight());
+            PatientMeasurement previous = batch.putIfAbsent(measurement.getId().measuredAt(), measurement);
+            if (previous != null && !sameValues(previous, measurement)) {
+                throw new MeasurementConflictException("El lote contiene mediciones distintas para el instante "
+                        + measurement.getId().measuredAt());
+            }
+        }
+
+        // Un reintento vuelve a enviar filas ya guardadas: se omiten si son iguales
+        for (PatientMeasurement existing : measurementRepository.findExisting(patientId, batch.keySet())) {
+            PatientMeasurement requested = batch.remove(existing.getId().measuredAt());
+            if (requested != null && !sameValues(existing, requested)) {
+                throw new MeasurementConflictException("Ya existe otra medición del paciente " + patientId
+                        + " en el instante " + existing.getId().measuredAt());
+            }
+        }
+
+        try {
+            // Se insertan por lotes (hibernate.jdbc.batch_size)
+            measurementRepository.saveAllAndFlush(batch.values());
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición guardó el mismo instante entre la comprobación y la inserción
+            throw new MeasurementConflictException("Otra petición registró mediciones del paciente " + patientId
+                    + " en los mismos instantes");
+        }
+        return batch.size();
+    }
+
+    private static boolean sameValues(PatientMeasurement a, PatientMeasurement b) {
+        return Objects.equals(a.getWeight(), b.getWeight()) && Objects.equals(a.getHeight(), b.getHeight());
+    }
+
+    @Transactional
+    public void deleteMeasurements(Long patientId) {
+        int deleted = measurementRepository.deleteByPatientId(patientId);
+        log.info("Eliminadas {} mediciones del paciente {}", deleted, patientId);
+    }
+
+    public Flux<MeasurementPoint> streamMeasurements(Long patientId, LocalDateTime from, LocalDateTime to,
+                                                     MeasurementResolution resolution) {
+        log.info("Obteniendo historial del paciente {} entre {} y {} ({})", patientId, from, to, resolution);
+        checkPatientExists(patientId);
+        String tenant = TenantContext.getCurrentTenant();
+
+        Flux<PatientMeasurement> raw = Flux.<List<PatientMeasurement>, LocalDateTime>generate(
+                        () -> from.minus(1, ChronoUnit.MICROS),
+                        (after, sink) -> {
+                            List<PatientMeasurement> page = TenantContext.callAs(tenant,
+                                    () -> measurementRepository.findRangeAfter(patientId, after, to, PageRequest.ofSize(pageSize)));
+                            if (page.isEmpty()) {
+                                sink.complete();
+                                return after;
+                            }
+                            sink.next(page);
+                            if (page.size() < pageSize) {
+                                sink.complete();
+                            }
+                            return page.get(page.size() - 1).getId().measuredAt();
+                        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .concatMapIterable(page -> page, 1);
+
+        if (resolution == MeasurementResolution.RAW) {
+            return raw.map(m -> new MeasurementPoint(
+                    m.getId().measuredAt(), m.getWeight(), m.getHeight(), m.getBmi(), 1));
+        }
+        return raw.bufferUntilChanged(m -> bucketOf(m.getId().measuredAt(), resolution))
+                .map(bucket -> average(bucketOf(bucket.get(0).getId().measuredAt(), resolution), bucket));
+    }
+
+    static LocalDateTime bucketOf(LocalDateTime timestamp, MeasurementResolution resolution) {
+        LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+        return resolution == MeasurementResolution.WEEKLY
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day;
+    }
+
+    private static MeasurementPoint average(LocalDateTime bucket, List<PatientMeasurement> measurements) {
+        return new MeasurementPoint(bucket,
+                mean(measurements.stream().map(PatientMeasurement::getWeight).toList()),
+                mean(measurements.stream().map(PatientMeasurement::getHeight).toList()),
+                mean(measurements.stream().map(PatientMeasurement::getBmi).toList()),
+                measurements.size());
+    }
+
+    private static Float mean(List<Float> values) {
+        double sum = 0;
+        int count = 0;
+        for (Float value : values) {
+            if (value != null) {
+                sum += value;
+                count++;
+            }
+        }
+        return count == 0 ? null : (float) (sum / count);
+    }
+
+    private void checkPatientExists(Long patientId) {
+        if (!patientRepository.existsById(patientId) && !archivedPatientRepository.existsById(patientId)) {
+            throw new PatientNotFoundException("Paciente no encontrado con ID: " + patientId);
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.insulinpump.patientservice.service;
 
+import com.insulinpump.patientservice.dto.PatientCohortStats;
+import com.insulinpump.patientservice.dto.PatientSearchResult;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.event.PatientChangedEvent.ChangeType;
 import com.insulinpump.patientservice.exception.PatientNotFoundException;
 import com.insulinpump.patientservice.exception.DuplicateMedicalIdException;
+import com.insulinpump.patientservice.index.DeviceRoutingStats;
+import com.insulinpump.patientservice.index.DeviceRoutingTable;
+import com.insulinpump.patientservice.index.PatientColumnStore;
+import com.insulinpump.patientservice.index.PatientSearchIndex;
 import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.profiling.CacheLookupEvent;
 import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +29,12 @@ import java.util.List;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final DeviceRoutingTable deviceRoutingTable;
+    private final PatientSearchIndex searchIndex;
+    private final PatientColumnStore columnStore;
+    private final PatientMeasurementService measurementService;
+    private final PatientArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Patient> getAllPatients() {
         log.info("Obteniendo todos los pacientes");
@@ -25,13 +43,16 @@ public class PatientService {
 
     public Patient getPatientById(Long id) {
         log.info("Buscando paciente con ID: {}", id);
+        // Si no está en la tabla principal se busca en el archivo (solo lectura)
         return patientRepository.findById(id)
+                .or(() -> archiveService.findArchivedById(id))
                 .orElseThrow(() -> new PatientNotFoundException("Paciente no encontrado con ID: " + id));
     }
 
     public Patient getPatientByMedicalId(String medicalId) {
         log.info("Buscando paciente con ID médico: {}", medicalId);
         return patientRepository.findByMedicalId(medicalId)
+                .or(() -> archiveService.findArchivedByMedicalId(medicalId))
                 .orElseThrow(() -> new PatientNotFoundException("Paciente no encontrado con ID médico: " + medicalId));
     }
 
@@ -39,21 +60,27 @@ public class PatientService {
     public Patient createPatient(Patient patient) {
         log.info("Creando nuevo paciente con ID médico: {}", patient.getMedicalId());
 
-        if (patientRepository.existsByMedicalId(patient.getMedicalId())) {
+        if (isMedicalIdInUse(patient.getMedicalId())) {
             throw new DuplicateMedicalIdException("Ya existe un paciente con el ID médico: " + patient.getMedicalId());
         }
 
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        measurementService.recordIfChanged(null, null, saved);
+        eventPublisher.publishEvent(new PatientChangedEvent(ChangeType.CREATED, saved, null));
+        return saved;
     }
 
     @Transactional
     public Patient updatePatient(Long id, Patient patientDetails) {
         log.info("Actualizando paciente con ID: {}", id);
-        Patient patient = getPatientById(id);
+        Patient patient = getManagedPatient(id);
+        Long previousDeviceId = patient.getDeviceId();
+        Float previousWeight = patient.getWeight();
+        Float previousHeight = patient.getHeight();
 
         // Verificar si el nuevo medicalId ya existe (si es diferente al actual)
         if (!patient.getMedicalId().equals(patientDetails.getMedicalId()) &&
-                patientRepository.existsByMedicalId(patientDetails.getMedicalId())) {
+                isMedicalIdInUse(patientDetails.getMedicalId())) {
             throw new DuplicateMedicalIdException("Ya existe un paciente con el ID médico: " + patientDetails.getMedicalId());
         }
 
@@ -68,27 +95,80 @@ public class PatientService {
         patient.setHeight(patientDetails.getHeight());
         patient.setEmergencyContact(patientDetails.getEmergencyContact());
 
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        // El peso y la altura se sobrescriben en el paciente; el historial conserva la tendencia
+        measurementService.recordIfChanged(previousWeight, previousHeight, saved);
+        eventPublisher.publishEvent(new PatientChangedEvent(ChangeType.UPDATED, saved, previousDeviceId));
+        return saved;
     }
 
     @Transactional
     public void deletePatient(Long id) {
         log.info("Eliminando paciente con ID: {}", id);
-        Patient patient = getPatientById(id);
+        Patient patient = getManagedPatient(id);
+        measurementService.deleteMeasurements(id);
         patientRepository.delete(patient);
+        eventPublisher.publishEvent(new PatientChangedEvent(ChangeType.DELETED, patient, patient.getDeviceId()));
     }
 
     @Transactional
     public Patient assignDeviceToPatient(Long patientId, Long deviceId) {
         log.info("Asignando dispositivo {} al paciente {}", deviceId, patientId);
-        Patient patient = getPatientById(patientId);
+        Patient patient = getManagedPatient(patientId);
+        Long previousDeviceId = patient.getDeviceId();
         patient.setDeviceId(deviceId);
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientChangedEvent(ChangeType.DEVICE_ASSIGNED, saved, previousDeviceId));
+        return saved;
     }
 
     public Patient getPatientByDeviceId(Long deviceId) {
         log.info("Buscando paciente con dispositivo ID: {}", deviceId);
+
+        // La tabla en memoria resuelve el ID del paciente; en modo autoritativo también sirve su copia,
+        // si no, se carga por clave primaria
+        long patientId = deviceRoutingTable.lookup(deviceId);
+        CacheLookupEvent.emit("deviceRouting", deviceId, patientId != DeviceRoutingTable.NOT_FOUND);
+        if (patientId != DeviceRoutingTable.NOT_FOUND) {
+            Patient snapshot = deviceRoutingTable.findSnapshot(deviceId, patientId);
+            if (snapshot != null && TenantContext.canSee(snapshot.getClinicId())) {
+                return snapshot;
+            }
+            Optional<Patient> routed = patientRepository.findById(patientId)
+                    .filter(patient -> deviceId.equals(patient.getDeviceId()));
+            if (routed.isPresent()) {
+                return routed.get();
+            }
+        } else if (deviceRoutingTable.isAuthoritativeMiss()) {
+            throw new PatientNotFoundException("Paciente no encontrado con dispositivo ID: " + deviceId);
+        }
+
         return patientRepository.findByDeviceId(deviceId)
                 .orElseThrow(() -> new PatientNotFoundException("Paciente no encontrado con dispositivo ID: " + deviceId));
     }
+
+    public DeviceRoutingStats getDeviceRoutingStats() {
+        return deviceRoutingTable.getStats();
+    }
+
+    public List<PatientSearchResult> searchPatients(String query, int limit) {
+        log.info("Buscando pacientes que coincidan con: {}", query);
+        return searchIndex.search(query, limit);
+    }
+
+    public PatientCohortStats getCohortStats() {
+        log.info("Calculando estadísticas de la población de pacientes");
+        return columnStore.getCohortStats();
+    }
+
+    // Las escrituras necesitan la entidad gestionada: un paciente archivado vuelve a la tabla principal
+    private Patient getManagedPatient(Long id) {
+        return patientRepository.findById(id)
+                .or(() -> archiveService.rehydrate(id) ? patientRepository.findById(id) : Optional.empty())
+                .orElseThrow(() -> new PatientNotFoundException("Paciente no encontrado con ID: " + id));
+    }
+
+    private boolean isMedicalIdInUse(String medicalId) {
+        return patientRepository.existsByMedicalId(medicalId) || archiveService.existsArchivedByMedicalId(medicalId);
+    }
 }
@@ -0,0 +1,55 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.exception.PatientNotFoundException;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.ReactivePatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas no bloqueantes sobre R2DBC. La clínica se captura en el hilo de la petición,
+// antes de que la consulta continúe en los hilos del driver.
+@Service
+@ConditionalOnProperty(name = "patients.reactive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePatientService {
+
+    private final ReactivePatientRepository reactivePatientRepository;
+
+    @Value("${patients.reactive.page-size:500}")
+    private int pageSize = 500;
+
+    // Igual que la ruta bloqueante, un paciente archivado se sigue encontrando
+    public Mono<Patient> getPatientById(Long id) {
+        String tenant = TenantContext.getCurrentTenant();
+        return reactivePatientRepository.findById(tenant, id)
+                .switchIfEmpty(Mono.defer(() -> reactivePatientRepository.findArchivedById(tenant, id)))
+                .switchIfEmpty(Mono.error(() -> new PatientNotFoundException("Paciente no encontrado con ID: " + id)));
+    }
+
+    public Mono<Patient> getPatientByMedicalId(String medicalId) {
+        String tenant = TenantContext.getCurrentTenant();
+        return reactivePatientRepository.findByMedicalId(tenant, medicalId)
+                .switchIfEmpty(Mono.defer(() -> reactivePatientRepository.findArchivedByMedicalId(tenant, medicalId)))
+                .switchIfEmpty(Mono.error(() -> new PatientNotFoundException("Paciente no encontrado con ID médico: " + medicalId)));
+    }
+
+    // Los pacientes archivados nunca tienen dispositivo asignado
+    public Mono<Patient> getPatientByDeviceId(Long deviceId) {
+        String tenant = TenantContext.getCurrentTenant();
+        return reactivePatientRepository.findByDeviceId(tenant, deviceId)
+                .switchIfEmpty(Mono.error(() -> new PatientNotFoundException("Paciente no encontrado con dispositivo ID: " + deviceId)));
+    }
+
+    // La contrapresión llega hasta el driver: el fetch size limita las filas pedidas a MySQL por lote
+    public Flux<Patient> streamAllPatients() {
+        log.info("Emitiendo todos los pacientes en streaming (lotes de {})", pageSize);
+        return reactivePatientRepository.findAll(TenantContext.getCurrentTenant(), pageSize);
+    }
+}
@@ -0,0 +1,297 @@
+package com.insulinpump.patientservice.subscription;
+
+import com.insulinpump.patientservice.dto.PatientChangeNotification;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.exception.SubscriptionLimitException;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Difunde los cambios de pacientes confirmados a las suscripciones SSE abiertas
+@Component
+@Slf4j
+public class PatientChangeBroadcaster {
+
+    public static final String RESYNC_EVENT = "RESYNC";
+
+    private final Set<PatientSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    // Últimos eventos para reanudar con Last-Event-ID; protegido por this junto con lastEventId
+    private final PatientChangeNotification[] history;
+    private long lastEventId;
+    // La secuencia se reinicia en cada arranque: la época distingue los identificadores de otro
+    // arranque o de otra instancia, que no se pueden repetir desde este historial
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final long writeTimeoutMillis;
+
+    // SseEmitter.send es synchronized: un hilo virtual bloqueado dentro fijaría su hilo portador.
+    // Los drenadores virtuales solo esperan en la cola; los envíos se hacen en un grupo acotado de hilos
+    // de plataforma con cola acotada. Si está lleno, el suscriptor se expulsa en vez de crear más hilos.
+    private final ThreadPoolExecutor writer;
+
+    public PatientChangeBroadcaster(@Value("${patients.subscriptions.history-size:1024}") int historySize,
+                                    @Value("${patients.subscriptions.buffer-size:256}") int bufferSize,
+                                    @Value("${patients.subscriptions.max-subscribers:10000}") int maxSubscribers,
+                                    @Value("${patients.subscriptions.timeout-minutes:30}") long timeoutMinutes,
+                                    @Value("${patients.subscriptions.heartbeat-seconds:15}") long heartbeatSeconds,
+                                    @Value("${patients.subscriptions.write-timeout-seconds:5}") long writeTimeoutSeconds,
+                                    @Value("${patients.subscriptions.writer-threads:64}") int writerThreads,
+                                    @Value("${patients.subscriptions.writer-queue-size:1024}") int writerQueueSize) {
+        this.history = new PatientChangeNotification[historySize];
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+        this.writeTimeoutMillis = TimeUnit.SECONDS.toMillis(writeTimeoutSeconds);
+        this.writer = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(writerQueueSize),
+                Thread.ofPlatform().name("sse-escritura-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.writer.allowCoreThreadTimeOut(true);
+    }
+
+    public SseEmitter subscribe(Set<Long> deviceIds, Set<Long> patientIds, String resumeFrom) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new SubscriptionLimitException("Se alcanzó el máximo de " + maxSubscribers + " suscripciones");
+        }
+        PatientSubscription subscription = new PatientSubscription(TenantContext.getCurrentTenant(),
+                deviceIds, patientIds, newEmitter(), bufferSize);
+
+        // Registrar y repetir el historial bajo el mismo bloqueo que la publicación evita huecos y duplicados
+        boolean gap;
+        synchronized (this) {
+            gap = resumeFrom != null && replay(subscription, resumeFrom);
+            subscriptions.add(subscription);
+        }
+
+        SseEmitter emitter = subscription.getEmitter();
+        emitter.onCompletion(() -> close(subscription));
+        emitter.onTimeout(() -> close(subscription));
+        emitter.onError(error -> close(subscription));
+
+        Thread drainer = Thread.ofVirtual()
+                .name("sse-pacientes")
+                .unstarted(() -> drain(subscription, gap));
+        subscription.attach(drainer);
+        drainer.start();
+        log.info("Nueva {} (total {})", subscription, subscriptions.size());
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    int getWriterThreadCount() {
+        return writer.getPoolSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        Patient patient = event.getPatient();
+        synchronized (this) {
+            long sequence = ++lastEventId;
+            PatientChangeNotification notification = new PatientChangeNotification(epoch + "-" + sequence,
+                    event.getType(), patient.getId(), patient.getClinicId(), patient.getDeviceId(),
+                    event.getPreviousDeviceId(), LocalDateTime.now());
+            history[slot(sequence)] = notification;
+            for (PatientSubscription subscription : subscriptions) {
+                if (subscription.matches(notification) && !subscription.offer(notification)) {
+                    evict(subscription);
+                }
+            }
+        }
+    }
+
+    String getEpoch() {
+        return epoch;
+    }
+
+    // Devuelve true si ya no se conservan todos los eventos posteriores a lastSeenId
+    private boolean replay(PatientSubscription subscription, String lastSeenId) {
+        long resumeFrom = sequenceOf(lastSeenId);
+        if (resumeFrom < 0 || resumeFrom > lastEventId) {
+            // Identificador de otro arranque u otra instancia: no se sabe qué se perdió
+            return true;
+        }
+        long oldest = Math.max(1, lastEventId - history.length + 1);
+        boolean gap = resumeFrom + 1 < oldest;
+        for (long id = Math.max(resumeFrom + 1, oldest); id <= lastEventId; id++) {
+            PatientChangeNotification notification = history[slot(id)];
+            if (subscription.matches(notification) && !subscription.offer(notification)) {
+                return true;
+            }
+        }
+        return gap;
+    }
+
+    // Secuencia de un identificador de esta época, o -1 si es de otra o no tiene el formato
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId, prefix.length(), eventId.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private int slot(long eventId) {
+        return (int) (eventId % history.length);
+    }
+
+    // Un cliente lento no frena a los demás: se cierra su stream y puede reanudar con Last-Event-ID
+    private void evict(PatientSubscription subscription) {
+        log.warn("Expulsando {} por no consumir los eventos a tiempo", subscription);
+        close(subscription);
+    }
+
+    private void close(PatientSubscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            log.info("Cerrada {} (quedan {})", subscription, subscriptions.size());
+        }
+        subscription.close();
+    }
+
+    private void drain(PatientSubscription subscription, boolean gap) {
+        SseEmitter emitter = subscription.getEmitter();
+        AtomicReference<PendingWrite> lastWrite = new AtomicReference<>();
+        try {
+            if (gap) {
+                write(lastWrite, emitter, SseEmitter.event().name(RESYNC_EVENT)
+                        .data("Se perdieron eventos; consulte de nuevo el estado de los pacientes"));
+            }
+            while (!subscription.isClosed()) {
+                PatientChangeNotification notification = subscription.poll(heartbeatMillis);
+                if (notification == null) {
+                    // El latido también detecta clientes desconectados sin cierre limpio
+                    write(lastWrite, emitter, SseEmitter.event().comment("ping"));
+                } else {
+                    write(lastWrite, emitter, SseEmitter.event()
+                            .id(notification.getEventId())
+                            .name(notification.getType().name())
+                            .data(notification));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn("Expulsando {}: una escritura superó {} ms", subscription, writeTimeoutMillis);
+        } catch (RejectedExecutionException e) {
+            log.warn("Expulsando {}: los {} hilos de escritura SSE y su cola están ocupados",
+                    subscription, writer.getMaximumPoolSize());
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Cliente SSE desconectado: {}", e.getMessage());
+        } finally {
+            close(subscription);
+            // Un envío aún en curso retiene el monitor del emisor y complete() bloquearía este hilo.
+            // Ese emisor termina cuando el contenedor da por fallido el socket o vence el timeout del stream.
+            PendingWrite pending = lastWrite.get();
+            if (pending == null || !pending.abandon()) {
+                completeQuietly(emitter);
+            }
+        }
+    }
+
+    // El hilo de escritura de un cliente atascado queda libre cuando el contenedor da por fallido el socket
+    private void write(AtomicReference<PendingWrite> lastWrite, SseEmitter emitter, SseEmitter.SseEventBuilder event)
+            throws IOException, InterruptedException, TimeoutException {
+        PendingWrite pending = new PendingWrite(emitter, event);
+        lastWrite.set(pending);
+        Future<Void> future = writer.submit(pending);
+        try {
+            future.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Sin envío en curso el monitor del emisor está libre: complete() no espera
+    private void completeQuietly(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("No se pudo completar el stream SSE: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(this::close);
+        writer.shutdown();
+    }
+
+    // Envío encargado a un hilo de escritura
+    private static final class PendingWrite implements Callable<Void> {
+
+        private static final int QUEUED = 0;
+        private static final int SENDING = 1;
+        private static final int DONE = 2;
+        private static final int ABANDONED = 3;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final SseEmitter emitter;
+        private final SseEmitter.SseEventBuilder event;
+
+        private PendingWrite(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+            this.emitter = emitter;
+            this.event = event;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            if (!state.compareAndSet(QUEUED, SENDING)) {
+                return null;
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                state.set(DONE);
+            }
+            return null;
+        }
+
+        // Impide que arranque si aún espera en la cola; true si el hilo de escritura sigue dentro de send
+        private boolean abandon() {
+            return !state.compareAndSet(QUEUED, ABANDONED) && state.get() == SENDING;
+        }
+    }
+}
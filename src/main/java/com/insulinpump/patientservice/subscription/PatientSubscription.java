@@ -0,0 +1,82 @@
+package com.insulinpump.patientservice.subscription;
+
+import com.insulinpump.patientservice.dto.PatientChangeNotification;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Suscriptor SSE con su cola acotada; un hilo virtual por suscriptor espera en ella y encarga cada envío al cliente
+final class PatientSubscription {
+
+    private final String tenant;
+    private final Set<Long> deviceIds;
+    private final Set<Long> patientIds;
+    private final SseEmitter emitter;
+    private final BlockingQueue<PatientChangeNotification> queue;
+    private volatile boolean closed;
+    private volatile Thread drainer;
+
+    PatientSubscription(String tenant, Set<Long> deviceIds, Set<Long> patientIds, SseEmitter emitter, int bufferSize) {
+        this.tenant = tenant;
+        this.deviceIds = deviceIds != null ? Set.copyOf(deviceIds) : Set.of();
+        this.patientIds = patientIds != null ? Set.copyOf(patientIds) : Set.of();
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    // Sin filtros recibe todos los cambios de su clínica; el deviceId anterior cuenta para notificar desasignaciones
+    boolean matches(PatientChangeNotification notification) {
+        if (!TenantContext.ROOT_TENANT.equals(tenant) && !tenant.equals(notification.getClinicId())) {
+            return false;
+        }
+        if (deviceIds.isEmpty() && patientIds.isEmpty()) {
+            return true;
+        }
+        return patientIds.contains(notification.getPatientId())
+                || containsDevice(notification.getDeviceId())
+                || containsDevice(notification.getPreviousDeviceId());
+    }
+
+    private boolean containsDevice(Long deviceId) {
+        return deviceId != null && deviceIds.contains(deviceId);
+    }
+
+    // Nunca bloquea al publicador: false si la cola está llena
+    boolean offer(PatientChangeNotification notification) {
+        return !closed && queue.offer(notification);
+    }
+
+    PatientChangeNotification poll(long timeoutMillis) throws InterruptedException {
+        return queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void attach(Thread thread) {
+        this.drainer = thread;
+    }
+
+    void close() {
+        closed = true;
+        Thread thread = drainer;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "suscripción[" + tenant + ", dispositivos=" + deviceIds.size() + ", pacientes=" + patientIds.size()
+                + ", pendientes=" + queue.size() + "]";
+    }
+}
@@ -0,0 +1,54 @@
+package com.insulinpump.patientservice.tenant;
+
+import java.util.function.Supplier;
+
+// Clínica (tenant) asociada al hilo actual
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    // Tenant raíz: Hibernate no filtra por clínica (tareas internas de toda la población)
+    public static final String ROOT_TENANT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getCurrentTenant() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    // Datos servidos desde memoria: la clínica actual solo ve los suyos, el tenant raíz todos
+    public static boolean canSee(String clinicId) {
+        String tenant = getCurrentTenant();
+        return ROOT_TENANT.equals(tenant) || tenant.equals(clinicId);
+    }
+
+    public static void setCurrentTenant(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static <T> T callAsRoot(Supplier<T> action) {
+        return callAs(ROOT_TENANT, action);
+    }
+}
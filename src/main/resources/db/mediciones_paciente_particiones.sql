@@ -0,0 +1,38 @@
+-- Particionado temporal del historial de mediciones (MySQL 8).
+-- Se aplica una vez, después de que Hibernate cree la tabla. La clave primaria
+-- (patient_id, measured_at) incluye la columna de particionado, como exige MySQL.
+-- Cada año se añade una partición nueva reorganizando p_futuro.
+
+-- 1. Orden de la clave primaria. Las tablas creadas cuando PatientMeasurementId era una clase
+-- tienen (measured_at, patient_id): InnoDB agrupa por instante y la consulta de un paciente
+-- recorre las filas de todos los pacientes del rango. ddl-auto=update no cambia la clave existente.
+SET @primera_columna := (
+    SELECT COLUMN_NAME FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'mediciones_paciente'
+      AND INDEX_NAME = 'PRIMARY' AND SEQ_IN_INDEX = 1
+);
+SET @sql := IF(@primera_columna = 'measured_at',
+    'ALTER TABLE mediciones_paciente DROP PRIMARY KEY, ADD PRIMARY KEY (patient_id, measured_at)',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. Particiones por año
+ALTER TABLE mediciones_paciente
+    PARTITION BY RANGE COLUMNS (measured_at) (
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+        PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+    );
+
+-- Ejemplo de alta de la partición de 2028:
+-- ALTER TABLE mediciones_paciente REORGANIZE PARTITION p_futuro INTO (
+--     PARTITION p2028 VALUES LESS THAN ('2029-01-01'),
+--     PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+-- );
+
+-- Comprobación: la clave debe empezar por patient_id
+-- SHOW INDEX FROM mediciones_paciente WHERE Key_name = 'PRIMARY';
@@ -0,0 +1,37 @@
+-- Unicidad del ID médico por clínica (MySQL 8).
+-- Antes del particionado por clínica, medical_id tenía un índice único global (@Column(unique = true)).
+-- ddl-auto=update crea uk_pacientes_clinica_medical_id pero no elimina el índice antiguo, y mientras exista
+-- un mismo ID médico en dos clínicas falla con un error de integridad (500).
+-- Se aplica una vez, con el servicio ya arrancado al menos una vez con la versión por clínica.
+-- Hibernate genera el nombre del índice antiguo (UK...), así que se busca en information_schema.
+
+-- 1. Índice compuesto nuevo, por si aún no lo ha creado Hibernate
+SET @existe_nuevo := (
+    SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pacientes'
+      AND INDEX_NAME = 'uk_pacientes_clinica_medical_id'
+);
+SET @sql := IF(@existe_nuevo = 0,
+    'ALTER TABLE pacientes ADD CONSTRAINT uk_pacientes_clinica_medical_id UNIQUE (clinic_id, medical_id)',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. Índice único antiguo: único, de una sola columna y sobre medical_id
+SET @indice_antiguo := (
+    SELECT INDEX_NAME FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pacientes' AND NON_UNIQUE = 0
+    GROUP BY INDEX_NAME
+    HAVING COUNT(*) = 1 AND MAX(COLUMN_NAME) = 'medical_id'
+    LIMIT 1
+);
+SET @sql := IF(@indice_antiguo IS NOT NULL,
+    CONCAT('ALTER TABLE pacientes DROP INDEX `', @indice_antiguo, '`'),
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Comprobación: solo debe quedar uk_pacientes_clinica_medical_id (clinic_id, medical_id)
+-- SHOW INDEX FROM pacientes WHERE Column_name = 'medical_id';
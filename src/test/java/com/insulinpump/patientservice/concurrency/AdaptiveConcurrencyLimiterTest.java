@@ -0,0 +1,123 @@
+package com.insulinpump.patientservice.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adaptive Concurrency Limiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private AtomicLong clock;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setup() {
+        clock = new AtomicLong();
+        limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, clock::get);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar peticiones por encima del límite")
+    void whenLimitReached_thenRejectAcquire() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL).isPresent());
+        }
+
+        // When/Then
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL).isEmpty());
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Las lecturas masivas deberían descartarse antes que las escrituras")
+    void whenHalfLimitUsed_thenRejectBulkButAcceptCritical() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(RequestPriority.CRITICAL);
+        }
+
+        // When/Then
+        assertTrue(limiter.tryAcquire(RequestPriority.BULK).isEmpty());
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL).isPresent());
+    }
+
+    @Test
+    @DisplayName("Debería reducir el límite cuando la latencia aumenta")
+    void whenLatencyGrows_thenLimitShrinks() {
+        // Given - latencia base de 10 ms a plena carga
+        runSaturatedRound(10);
+        int baseline = limiter.getLimit();
+
+        // When - la latencia se multiplica por 20
+        for (int i = 0; i < 20; i++) {
+            runSaturatedRound(200);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() < baseline);
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    @DisplayName("Debería ampliar el límite cuando la latencia se mantiene estable")
+    void whenLatencyStable_thenLimitGrows() {
+        // When
+        for (int i = 0; i < 20; i++) {
+            runSaturatedRound(10);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    @DisplayName("Liberar un permiso dos veces no debería alterar el contador")
+    void whenPermitReleasedTwice_thenCountOnce() {
+        // Given
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(RequestPriority.NORMAL);
+
+        // When
+        permit.orElseThrow().release();
+        permit.orElseThrow().release();
+
+        // Then
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Debería clasificar listados y mediciones como masivos y escrituras como críticas")
+    void whenClassifyRequests_thenAssignPriority() {
+        assertEquals(RequestPriority.BULK,
+                ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/api/patients")));
+        assertEquals(RequestPriority.NORMAL,
+                ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/api/patients/1")));
+        assertEquals(RequestPriority.BULK,
+                ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/api/patients/1/measurements")));
+        assertEquals(RequestPriority.CRITICAL,
+                ConcurrencyLimitFilter.classify(new MockHttpServletRequest("POST", "/api/patients/1/measurements")));
+        assertEquals(RequestPriority.CRITICAL,
+                ConcurrencyLimitFilter.classify(new MockHttpServletRequest("POST", "/api/patients")));
+        assertEquals(RequestPriority.CRITICAL,
+                ConcurrencyLimitFilter.classify(new MockHttpServletRequest("PUT", "/api/patients/1/device/100")));
+    }
+
+    private void runSaturatedRound(long latencyMillis) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit;
+        while ((permit = limiter.tryAcquire(RequestPriority.CRITICAL)).isPresent()) {
+            permits.add(permit.get());
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::release);
+    }
+}
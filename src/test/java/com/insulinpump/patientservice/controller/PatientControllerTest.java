@@ -1,6 +1,8 @@
 package com.insulinpump.patientservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insulinpump.patientservice.dto.PatientCohortStats;
+import com.insulinpump.patientservice.dto.PatientSearchResult;
 import com.insulinpump.patientservice.exception.GlobalExceptionHandler;
 import com.insulinpump.patientservice.exception.PatientNotFoundException;
 import com.insulinpump.patientservice.model.DiabetesType;
@@ -19,6 +21,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -312,4 +315,50 @@ class PatientControllerTest {
 
         verify(patientService, times(1)).updatePatient(eq(999L), any(Patient.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/patients/find - Debería devolver los resultados de la búsqueda")
+    void should_find_patients_by_query() throws Exception {
+        // Given
+        PatientSearchResult result = new PatientSearchResult(2L, "María García", "MED456",
+                "maria@example.com", "+34987654321", null, 9);
+        when(patientService.searchPatients("maria", 10)).thenReturn(List.of(result));
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/find").param("q", "maria"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].medicalId").value("MED456"));
+
+        verify(patientService, times(1)).searchPatients("maria", 10);
+    }
+
+    @Test
+    @DisplayName("GET /api/patients/find - Debería retornar 400 sin el parámetro q")
+    void should_return_400_when_query_missing() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/patients/find"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(patientService, never()).searchPatients(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/patients/stats - Debería devolver las estadísticas de la población")
+    void should_return_cohort_stats() throws Exception {
+        // Given
+        PatientCohortStats stats = new PatientCohortStats(2, 1, 0.5, Map.of("TYPE_1", 1L, "TYPE_2", 1L),
+                List.of(), List.of(), 38.5, 25.1, 120);
+        when(patientService.getCohortStats()).thenReturn(stats);
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPatients").value(2))
+                .andExpect(jsonPath("$.deviceAssignedRatio").value(0.5))
+                .andExpect(jsonPath("$.byDiabetesType.TYPE_1").value(1));
+
+        verify(patientService, times(1)).getCohortStats();
+    }
+}
@@ -0,0 +1,121 @@
+package com.insulinpump.patientservice.controller;
+
+import com.insulinpump.patientservice.dto.MeasurementPoint;
+import com.insulinpump.patientservice.exception.GlobalExceptionHandler;
+import com.insulinpump.patientservice.exception.MeasurementConflictException;
+import com.insulinpump.patientservice.exception.PatientNotFoundException;
+import com.insulinpump.patientservice.model.MeasurementResolution;
+import com.insulinpump.patientservice.service.PatientMeasurementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Patient Measurement Controller Tests - Standalone")
+class PatientMeasurementControllerTest {
+
+    @Mock
+    private PatientMeasurementService measurementService;
+
+    @InjectMocks
+    private PatientMeasurementController measurementController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(measurementController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /api/patients/{id}/measurements - Debería emitir el historial agregado por día")
+    void should_stream_daily_measurements() throws Exception {
+        // Given
+        when(measurementService.streamMeasurements(eq(1L), any(), any(), eq(MeasurementResolution.DAILY)))
+                .thenReturn(Flux.just(new MeasurementPoint(LocalDateTime.of(2026, 1, 5, 0, 0), 75.0f, 175.0f, 24.5f, 3)));
+
+        // When & Then
+        MvcResult result = mockMvc.perform(get("/api/patients/1/measurements")
+                        .param("resolution", "DAILY")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"samples\":3")));
+    }
+
+    @Test
+    @DisplayName("GET /api/patients/{id}/measurements - Debería retornar 404 cuando paciente no existe")
+    void should_return_404_when_patient_not_found() throws Exception {
+        // Given
+        when(measurementService.streamMeasurements(eq(999L), any(), any(), any()))
+                .thenThrow(new PatientNotFoundException("Paciente no encontrado con ID: 999"));
+
+        // When & Then
+        mockMvc.perform(get("/api/patients/999/measurements"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/patients/{id}/measurements - Debería rechazar mediciones inválidas")
+    void should_return_400_for_invalid_measurements() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/patients/1/measurements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"measuredAt\":\"2026-01-05T08:00:00\",\"weight\":-3}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(measurementService, never()).appendMeasurements(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("POST /api/patients/{id}/measurements - Debería exigir el peso o la altura")
+    void should_return_400_when_weight_and_height_missing() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/patients/1/measurements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"measuredAt\":\"2026-01-05T08:00:00\"}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(measurementService, never()).appendMeasurements(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("POST /api/patients/{id}/measurements - Debería retornar 409 ante mediciones en conflicto")
+    void should_return_409_for_conflicting_measurements() throws Exception {
+        // Given
+        when(measurementService.appendMeasurements(eq(1L), anyList()))
+                .thenThrow(new MeasurementConflictException("El lote contiene mediciones distintas para el instante 2026-01-05T08:00"));
+
+        // When & Then
+        mockMvc.perform(post("/api/patients/1/measurements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"measuredAt\":\"2026-01-05T08:00:00\",\"weight\":75},"
+                                + "{\"measuredAt\":\"2026-01-05T08:00:00\",\"weight\":76}]"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+}
@@ -0,0 +1,191 @@
+package com.insulinpump.patientservice.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotency Filter Tests")
+class IdempotencyFilterTest {
+
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setup() {
+        store = new IdempotencyStore(null, false, 60, 100);
+        filter = new IdempotencyFilter(store, new ObjectMapper().registerModule(new JavaTimeModule()),
+                true, 5, 1024, 64);
+        executions = new AtomicInteger();
+    }
+
+    private FilterChain createPatientChain(int status) {
+        return (req, res) -> {
+            executions.incrementAndGet();
+            req.getInputStream().readAllBytes();
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.getOutputStream().write(("{\"id\":" + executions.get() + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletRequest createRequest(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/patients");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    @DisplayName("Debería repetir la respuesta almacenada sin volver a ejecutar la petición")
+    void whenRetryWithSameKey_thenReplayStoredResponse() throws Exception {
+        // Given
+        filter.doFilter(createRequest("k1", "{\"name\":\"Juan\"}"), new MockHttpServletResponse(), createPatientChain(201));
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(createRequest("k1", "{\"name\":\"Juan\"}"), retry, createPatientChain(201));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Debería devolver 422 si la clave se reutiliza con otro cuerpo")
+    void whenSameKeyDifferentBody_thenReturn422() throws Exception {
+        // Given
+        filter.doFilter(createRequest("k1", "{\"name\":\"Juan\"}"), new MockHttpServletResponse(), createPatientChain(201));
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(createRequest("k1", "{\"name\":\"Ana\"}"), retry, createPatientChain(201));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(422, retry.getStatus());
+    }
+
+    @Test
+    @DisplayName("No debería almacenar errores del servidor")
+    void whenServerError_thenRetryExecutesAgain() throws Exception {
+        // Given
+        filter.doFilter(createRequest("k1", "{}"), new MockHttpServletResponse(), createPatientChain(500));
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(createRequest("k1", "{}"), retry, createPatientChain(201));
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    @DisplayName("Debería hacer esperar al duplicado concurrente hasta que termine la primera ejecución")
+    void whenConcurrentDuplicate_thenWaitForFirstExecution() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (req, res) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createPatientChain(201).doFilter(req, res);
+        };
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(createRequest("k1", "{}"), new MockHttpServletResponse(), slowChain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse duplicate = new MockHttpServletResponse();
+
+        // When
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(createRequest("k1", "{}"), duplicate, createPatientChain(201));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals("{\"id\":1}", duplicate.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Debería devolver 413 si Content-Length supera el máximo sin leer el cuerpo")
+    void whenContentLengthTooLarge_thenReturn413() throws Exception {
+        // Given
+        MockHttpServletRequest request = createRequest("k1", "x".repeat(65));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, createPatientChain(201));
+
+        // Then
+        assertEquals(413, response.getStatus());
+        assertEquals(0, executions.get());
+        assertEquals(65, request.getInputStream().available());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Debería devolver 413 si el cuerpo sin Content-Length supera el máximo")
+    void whenStreamedBodyTooLarge_thenReturn413() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/patients") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "k1");
+        request.setContent("x".repeat(1000).getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, createPatientChain(201));
+
+        // Then
+        assertEquals(413, response.getStatus());
+        assertEquals(0, executions.get());
+        assertEquals(1000 - 65, request.getInputStream().available());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Solo debería aplicar al alta de pacientes y a la asignación de dispositivo")
+    void whenClassifyRequests_thenOnlyTargetEndpoints() {
+        assertTrue(IdempotencyFilter.isIdempotentTarget(new MockHttpServletRequest("POST", "/api/patients")));
+        assertTrue(IdempotencyFilter.isIdempotentTarget(new MockHttpServletRequest("PUT", "/api/patients/1/device/7")));
+        assertFalse(IdempotencyFilter.isIdempotentTarget(new MockHttpServletRequest("PUT", "/api/patients/1")));
+        assertFalse(IdempotencyFilter.isIdempotentTarget(new MockHttpServletRequest("GET", "/api/patients")));
+    }
+}
@@ -0,0 +1,76 @@
+package com.insulinpump.patientservice.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotency Store Tests")
+class IdempotencyStoreTest {
+
+    @Test
+    @DisplayName("Debería expulsar las claves más antiguas al superar el máximo")
+    void whenOverCapacity_thenEvictOldest() {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(null, false, 60, 2);
+
+        // When
+        for (String key : new String[]{"a", "b", "c"}) {
+            IdempotencyStore.Reservation reservation = store.reserve(key, "fp");
+            store.complete(key, reservation.entry(), new StoredResponse("fp", 201, null, null, new byte[0]));
+        }
+
+        // Then
+        assertEquals(2, store.size());
+        assertTrue(store.reserve("a", "fp").owner());
+        assertFalse(store.reserve("c", "fp").owner());
+    }
+
+    @Test
+    @DisplayName("No debería expulsar una clave cuya ejecución sigue en curso")
+    void whenOverCapacityWithInFlightOwner_thenKeepIt() {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(null, false, 60, 2);
+        IdempotencyStore.Reservation inFlight = store.reserve("a", "fp");
+
+        // When
+        for (String key : new String[]{"b", "c"}) {
+            IdempotencyStore.Reservation reservation = store.reserve(key, "fp");
+            store.complete(key, reservation.entry(), new StoredResponse("fp", 201, null, null, new byte[0]));
+        }
+
+        // Then
+        assertEquals(2, store.size());
+        IdempotencyStore.Reservation retry = store.reserve("a", "fp");
+        assertFalse(retry.owner());
+        assertSame(inFlight.entry(), retry.entry());
+        assertTrue(store.reserve("b", "fp").owner());
+    }
+
+    @Test
+    @DisplayName("Debería volver a reservar una clave caducada")
+    void whenExpired_thenReserveAgain() {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(null, false, 0, 10);
+        IdempotencyStore.Reservation first = store.reserve("a", "fp");
+        store.complete("a", first.entry(), new StoredResponse("fp", 201, null, null, new byte[0]));
+
+        // When/Then
+        assertTrue(store.reserve("a", "fp").owner());
+    }
+
+    @Test
+    @DisplayName("Debería liberar la clave si la ejecución se abandona")
+    void whenAbandoned_thenReserveAgain() throws Exception {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(null, false, 60, 10);
+        IdempotencyStore.Reservation first = store.reserve("a", "fp");
+
+        // When
+        store.abandon("a", first.entry());
+
+        // Then
+        assertNull(first.entry().await(10));
+        assertTrue(store.reserve("a", "fp").owner());
+    }
+}
@@ -0,0 +1,132 @@
+package com.insulinpump.patientservice.index;
+
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Device Routing Table Tests")
+class DeviceRoutingTableTest {
+
+    private Patient createPatient(Long id, String name, Long deviceId) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setClinicId(TenantContext.DEFAULT_TENANT);
+        patient.setName(name);
+        patient.setDeviceId(deviceId);
+        return patient;
+    }
+
+    private void apply(DeviceRoutingTable table, PatientChangedEvent.ChangeType type, Patient patient, Long previousDeviceId) {
+        table.onPatientChanged(new PatientChangedEvent(type, patient, previousDeviceId));
+    }
+
+    @Test
+    @DisplayName("Debería mantener la copia del paciente al asignar, cambiar y eliminar el dispositivo")
+    void whenAuthoritative_thenSnapshotFollowsChanges() {
+        // Given
+        DeviceRoutingTable table = new DeviceRoutingTable(null, true);
+
+        // When
+        apply(table, PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, createPatient(1L, "Juan Pérez", 100L), null);
+        apply(table, PatientChangedEvent.ChangeType.UPDATED, createPatient(1L, "Juan Sánchez", 100L), 100L);
+
+        // Then
+        assertEquals(1L, table.lookup(100L));
+        assertEquals("Juan Sánchez", table.findSnapshot(100L, 1L).getName());
+
+        // When
+        apply(table, PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, createPatient(1L, "Juan Sánchez", 200L), 100L);
+
+        // Then
+        assertEquals(DeviceRoutingTable.NOT_FOUND, table.lookup(100L));
+        assertNull(table.findSnapshot(100L, 1L));
+        assertNotNull(table.findSnapshot(200L, 1L));
+
+        // When
+        apply(table, PatientChangedEvent.ChangeType.DELETED, createPatient(1L, "Juan Sánchez", 200L), 200L);
+
+        // Then
+        assertEquals(DeviceRoutingTable.NOT_FOUND, table.lookup(200L));
+        assertNull(table.findSnapshot(200L, 1L));
+    }
+
+    @Test
+    @DisplayName("No debería guardar copias de pacientes si la tabla no es autoritativa")
+    void whenNotAuthoritative_thenOnlyRoutes() {
+        // Given
+        DeviceRoutingTable table = new DeviceRoutingTable(null, false);
+
+        // When
+        apply(table, PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, createPatient(1L, "Juan Pérez", 100L), null);
+
+        // Then
+        assertEquals(1L, table.lookup(100L));
+        assertNull(table.findSnapshot(100L, 1L));
+    }
+
+    @Test
+    @DisplayName("Debería reconstruir la copia del paciente desde las columnas")
+    void whenSnapshotStored_thenRestoreAllFields() {
+        // Given
+        DeviceRoutingTable table = new DeviceRoutingTable(null, true);
+        Patient patient = createPatient(1L, "Juan Pérez", 100L);
+        patient.setClinicId("clinica-norte");
+        patient.setAge(35);
+        patient.setMedicalId("MED123");
+        patient.setDiabetesType(DiabetesType.TYPE_1);
+        patient.setEmail("juan@example.com");
+        patient.setWeight(75.5f);
+        patient.setLastActivityAt(LocalDateTime.of(2026, 1, 5, 8, 0, 0, 123_456_000));
+
+        // When
+        apply(table, PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, patient, null);
+        Patient snapshot = table.findSnapshot(100L, 1L);
+
+        // Then
+        assertEquals(patient, snapshot);
+        assertNull(snapshot.getHeight());
+        DeviceRoutingStats stats = table.getStats();
+        assertEquals(1, stats.getSnapshots());
+        assertTrue(stats.getSnapshotMemoryBytes() > 0);
+        assertTrue(stats.getMemoryBytes() > stats.getSnapshotMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("No debería pisar con la página de carga un cambio de dispositivo ya aplicado")
+    void whenDeviceReassignedWhileLoading_thenKeepEventState() {
+        // Given
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        DeviceRoutingTable table = new DeviceRoutingTable(patientRepository, true);
+        // La página se leyó antes del commit de la reasignación y del borrado
+        when(patientRepository.findByDeviceIdIsNotNullAndIdGreaterThanOrderByIdAsc(any(), any())).thenAnswer(invocation -> {
+            List<Patient> page = List.of(createPatient(1L, "Juan Pérez", 100L), createPatient(2L, "María García", 200L));
+            apply(table, PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, createPatient(1L, "Juan Pérez", 300L), 100L);
+            apply(table, PatientChangedEvent.ChangeType.DELETED, createPatient(2L, "María García", 200L), 200L);
+            return page;
+        });
+
+        // When
+        table.load();
+
+        // Then
+        assertEquals(DeviceRoutingTable.NOT_FOUND, table.lookup(100L));
+        assertNull(table.findSnapshot(100L, 1L));
+        assertEquals(1L, table.lookup(300L));
+        assertEquals(300L, table.findSnapshot(300L, 1L).getDeviceId());
+        assertEquals(DeviceRoutingTable.NOT_FOUND, table.lookup(200L));
+        assertNull(table.findSnapshot(200L, 2L));
+        assertTrue(table.isAuthoritativeMiss());
+    }
+}
@@ -0,0 +1,95 @@
+package com.insulinpump.patientservice.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Long Long Hash Map Tests")
+class LongLongHashMapTest {
+
+    @Test
+    @DisplayName("Debería guardar, sobrescribir y leer valores")
+    void whenPutAndGet_thenReturnLatestValue() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+
+        // When
+        map.put(100L, 1L);
+        map.put(200L, 2L);
+        map.put(100L, 3L);
+
+        // Then
+        assertEquals(3L, map.get(100L, -1L));
+        assertEquals(2L, map.get(200L, -1L));
+        assertEquals(-1L, map.get(300L, -1L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("Solo debería eliminar la clave si apunta al valor esperado")
+    void whenRemoveWithDifferentValue_thenKeepEntry() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(100L, 1L);
+
+        // When/Then
+        assertFalse(map.remove(100L, 2L));
+        assertEquals(1L, map.get(100L, -1L));
+        assertTrue(map.remove(100L, 1L));
+        assertEquals(-1L, map.get(100L, -1L));
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con HashMap tras muchas inserciones y borrados")
+    void whenRandomOperations_thenMatchReferenceMap() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Long current = reference.get(key);
+                if (current != null) {
+                    assertTrue(map.remove(key, current));
+                    reference.remove(key);
+                }
+            } else {
+                long value = random.nextLong() & Long.MAX_VALUE;
+                map.put(key, value);
+                reference.put(key, value);
+            }
+        }
+
+        // Then
+        assertEquals(reference.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(reference.getOrDefault(key, -1L), map.get(key, -1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería crecer manteniendo la carga por debajo del umbral")
+    void whenManyEntries_thenResizeAndReportMemory() {
+        // Given
+        LongLongHashMap map = new LongLongHashMap();
+
+        // When
+        for (long i = 1; i <= 10_000; i++) {
+            map.put(i, i * 10);
+        }
+
+        // Then
+        assertEquals(10_000, map.size());
+        assertTrue(map.capacity() >= 10_000 / 0.6);
+        assertEquals(2L * (16 + 8L * map.capacity()), map.memoryBytes());
+        assertEquals(50_000L, map.get(5_000L, -1L));
+    }
+}
@@ -0,0 +1,204 @@
+package com.insulinpump.patientservice.index;
+
+import com.insulinpump.patientservice.dto.PatientCohortStats;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.ArchivedPatient;
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.ArchivedPatientRepository;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Patient Column Store Tests")
+class PatientColumnStoreTest {
+
+    private PatientColumnStore columnStore;
+
+    @BeforeEach
+    void setup() {
+        columnStore = new PatientColumnStore(null, null);
+        // IMC 24.7 y 33.1
+        apply(PatientChangedEvent.ChangeType.CREATED, createPatient(1L, 35, DiabetesType.TYPE_1, 75.5f, 175.0f, 100L));
+        apply(PatientChangedEvent.ChangeType.CREATED, createPatient(2L, 42, DiabetesType.TYPE_2, 86.0f, 161.0f, null));
+        apply(PatientChangedEvent.ChangeType.CREATED, createPatient(3L, 97, DiabetesType.TYPE_2, null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private Patient createPatient(Long id, int age, DiabetesType type, Float weight, Float height, Long deviceId) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setClinicId(TenantContext.DEFAULT_TENANT);
+        patient.setAge(age);
+        patient.setDiabetesType(type);
+        patient.setWeight(weight);
+        patient.setHeight(height);
+        patient.setDeviceId(deviceId);
+        return patient;
+    }
+
+    private ArchivedPatient createArchivedPatient(Long id, int age, DiabetesType type) {
+        ArchivedPatient patient = new ArchivedPatient();
+        patient.setId(id);
+        patient.setClinicId(TenantContext.DEFAULT_TENANT);
+        patient.setAge(age);
+        patient.setDiabetesType(type);
+        return patient;
+    }
+
+    private void apply(PatientChangedEvent.ChangeType type, Patient patient) {
+        columnStore.onPatientChanged(new PatientChangedEvent(type, patient, null));
+    }
+
+    @Test
+    @DisplayName("Debería agregar tipos de diabetes, edades, IMC y dispositivos")
+    void whenGetCohortStats_thenAggregateColumns() {
+        // When
+        PatientCohortStats stats = columnStore.getCohortStats();
+
+        // Then
+        assertEquals(3, stats.getTotalPatients());
+        assertEquals(1, stats.getDeviceAssigned());
+        assertEquals(1L, stats.getByDiabetesType().get("TYPE_1"));
+        assertEquals(2L, stats.getByDiabetesType().get("TYPE_2"));
+        assertEquals(1, stats.getAgeHistogram().get(3).getCount());
+        assertEquals("90+", stats.getAgeHistogram().get(9).getLabel());
+        assertEquals(1, stats.getAgeHistogram().get(9).getCount());
+        assertEquals(1, stats.getBmiHistogram().get(1).getCount());
+        assertEquals(1, stats.getBmiHistogram().get(3).getCount());
+        assertEquals(58.0, stats.getAverageAge(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debería reflejar actualizaciones y eliminaciones")
+    void whenPatientUpdatedAndDeleted_thenStatsChange() {
+        // When
+        apply(PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, createPatient(2L, 42, DiabetesType.TYPE_2, 86.0f, 161.0f, 200L));
+        apply(PatientChangedEvent.ChangeType.DELETED, createPatient(1L, 35, DiabetesType.TYPE_1, 75.5f, 175.0f, 100L));
+
+        // Then
+        PatientCohortStats stats = columnStore.getCohortStats();
+        assertEquals(2, stats.getTotalPatients());
+        assertEquals(1, stats.getDeviceAssigned());
+        assertEquals(0L, stats.getByDiabetesType().get("TYPE_1"));
+        assertEquals(2, columnStore.size());
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar el hueco de un paciente eliminado")
+    void whenPatientDeletedThenCreated_thenReuseSlot() {
+        // When
+        apply(PatientChangedEvent.ChangeType.DELETED, createPatient(3L, 97, DiabetesType.TYPE_2, null, null, null));
+        apply(PatientChangedEvent.ChangeType.CREATED, createPatient(4L, 8, DiabetesType.OTHER, 30.0f, 130.0f, null));
+
+        // Then
+        PatientCohortStats stats = columnStore.getCohortStats();
+        assertEquals(3, stats.getTotalPatients());
+        assertEquals(1, stats.getAgeHistogram().get(0).getCount());
+        assertEquals(0, stats.getAgeHistogram().get(9).getCount());
+    }
+
+    @Test
+    @DisplayName("No debería contar pacientes de otra clínica")
+    void whenOtherClinic_thenEmptyStats() {
+        // Given
+        TenantContext.setCurrentTenant("clinica-norte");
+
+        // When
+        PatientCohortStats stats = columnStore.getCohortStats();
+
+        // Then
+        assertEquals(0, stats.getTotalPatients());
+        assertNull(stats.getAverageAge());
+    }
+
+    @Test
+    @DisplayName("Debería cargar también los pacientes archivados")
+    void whenLoad_thenIncludeArchivedPatients() {
+        // Given
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        ArchivedPatientRepository archivedPatientRepository = mock(ArchivedPatientRepository.class);
+        when(patientRepository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenReturn(List.of(createPatient(1L, 35, DiabetesType.TYPE_1, 75.5f, 175.0f, 100L)));
+        when(archivedPatientRepository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenReturn(List.of(createArchivedPatient(2L, 70, DiabetesType.TYPE_2)));
+        PatientColumnStore store = new PatientColumnStore(patientRepository, archivedPatientRepository);
+
+        // When
+        store.load();
+
+        // Then
+        PatientCohortStats stats = store.getCohortStats();
+        assertEquals(2, stats.getTotalPatients());
+        assertEquals(1, stats.getDeviceAssigned());
+        assertEquals(1L, stats.getByDiabetesType().get("TYPE_2"));
+        assertTrue(store.isLoaded());
+    }
+
+    @Test
+    @DisplayName("No debería resucitar un paciente eliminado mientras se leía su página")
+    void whenDeletedWhileLoading_thenKeepDeleted() {
+        // Given
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        ArchivedPatientRepository archivedPatientRepository = mock(ArchivedPatientRepository.class);
+        PatientColumnStore store = new PatientColumnStore(patientRepository, archivedPatientRepository);
+        Patient deleted = createPatient(1L, 35, DiabetesType.TYPE_1, 75.5f, 175.0f, null);
+        Patient updated = createPatient(2L, 42, DiabetesType.TYPE_2, 86.0f, 161.0f, null);
+        // La página se leyó antes del commit; los eventos llegan antes de aplicarla
+        when(patientRepository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenAnswer(invocation -> {
+            List<Patient> page = List.of(deleted, createPatient(2L, 42, DiabetesType.TYPE_2, 86.0f, 161.0f, null));
+            updated.setDeviceId(200L);
+            store.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.DELETED, deleted, null));
+            store.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, updated, null));
+            return page;
+        });
+        when(archivedPatientRepository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+
+        // When
+        store.load();
+
+        // Then
+        PatientCohortStats stats = store.getCohortStats();
+        assertEquals(1, stats.getTotalPatients());
+        assertEquals(1, stats.getDeviceAssigned());
+        // Tras la carga los eventos vuelven a aplicarse sin filtro
+        store.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.CREATED,
+                createPatient(1L, 35, DiabetesType.TYPE_1, 75.5f, 175.0f, null), null));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Debería dar el mismo resultado al dividir la agregación en paralelo")
+    void whenManyPatients_thenParallelAggregationMatches() {
+        // Given
+        PatientColumnStore large = new PatientColumnStore(null, null);
+        for (long id = 1; id <= 200_000; id++) {
+            Patient patient = createPatient(id, (int) (id % 80) + 1, DiabetesType.TYPE_1, 70.0f, 170.0f,
+                    id % 2 == 0 ? id : null);
+            large.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.CREATED, patient, null));
+        }
+
+        // When
+        PatientCohortStats stats = large.getCohortStats();
+
+        // Then
+        assertEquals(200_000, stats.getTotalPatients());
+        assertEquals(100_000, stats.getDeviceAssigned());
+        assertEquals(0.5, stats.getDeviceAssignedRatio(), 0.0001);
+        assertEquals(200_000L, stats.getByDiabetesType().get("TYPE_1"));
+    }
+}
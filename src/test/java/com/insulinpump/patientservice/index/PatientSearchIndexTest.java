@@ -0,0 +1,191 @@
+package com.insulinpump.patientservice.index;
+
+import com.insulinpump.patientservice.dto.PatientSearchResult;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Patient Search Index Tests")
+class PatientSearchIndexTest {
+
+    private PatientSearchIndex searchIndex;
+
+    @BeforeEach
+    void setup() {
+        searchIndex = new PatientSearchIndex(null);
+        index(createPatient(1L, "Juan Pérez", "MED123", "juan@example.com", "+34 600-123-456"));
+        index(createPatient(2L, "María García", "MED456", "maria@example.com", "+34987654321"));
+        index(createPatient(3L, "Mario Gómez", "MED789", "mgomez@example.com", "+34111222333"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private Patient createPatient(Long id, String name, String medicalId, String email, String phone) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setClinicId(TenantContext.DEFAULT_TENANT);
+        patient.setName(name);
+        patient.setMedicalId(medicalId);
+        patient.setEmail(email);
+        patient.setPhone(phone);
+        return patient;
+    }
+
+    private void index(Patient patient) {
+        searchIndex.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.CREATED, patient, null));
+    }
+
+    @Test
+    @DisplayName("Debería encontrar nombres sin tener en cuenta acentos ni mayúsculas")
+    void whenSearchWithoutAccents_thenMatchAccentedName() {
+        // When
+        List<PatientSearchResult> results = searchIndex.search("PEREZ", 10);
+
+        // Then
+        assertEquals(1, results.size());
+        assertEquals(1L, results.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debería priorizar la coincidencia exacta sobre el prefijo")
+    void whenSearchPrefix_thenRankExactMatchFirst() {
+        // When
+        List<PatientSearchResult> results = searchIndex.search("mari", 10);
+
+        // Then
+        assertEquals(List.of(2L, 3L), results.stream().map(PatientSearchResult::getId).toList());
+        assertEquals(2L, searchIndex.search("maría", 10).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debería buscar subcadenas del teléfono ignorando separadores")
+    void whenSearchPhoneDigits_thenMatchFormattedPhone() {
+        // When/Then
+        assertEquals(1L, searchIndex.search("600123", 10).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debería dejar de devolver un paciente eliminado")
+    void whenPatientDeleted_thenNotFound() {
+        // Given
+        Patient patient = createPatient(1L, "Juan Pérez", "MED123", "juan@example.com", "+34 600-123-456");
+
+        // When
+        searchIndex.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.DELETED, patient, null));
+
+        // Then
+        assertTrue(searchIndex.search("juan", 10).isEmpty());
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("Debería reindexar el nombre al actualizar el paciente")
+    void whenPatientUpdated_thenSearchNewName() {
+        // Given
+        Patient patient = createPatient(1L, "Juan Sánchez", "MED123", "juan@example.com", "+34 600-123-456");
+
+        // When
+        searchIndex.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.UPDATED, patient, null));
+
+        // Then
+        assertTrue(searchIndex.search("perez", 10).isEmpty());
+        assertEquals(1L, searchIndex.search("sanchez", 10).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("No debería devolver pacientes de otra clínica")
+    void whenOtherClinic_thenNoResults() {
+        // Given
+        TenantContext.setCurrentTenant("clinica-norte");
+
+        // When/Then
+        assertTrue(searchIndex.search("juan", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería buscar solo en la clínica del tenant y en todas para el tenant raíz")
+    void whenPatientsInSeveralClinics_thenSearchPerClinic() {
+        // Given
+        Patient north = createPatient(4L, "Juan Pérez", "MED999", "jperez@example.com", "+34222333444");
+        north.setClinicId("clinica-norte");
+        index(north);
+
+        // When
+        TenantContext.setCurrentTenant("clinica-norte");
+        List<PatientSearchResult> northResults = searchIndex.search("juan perez", 10);
+        TenantContext.setCurrentTenant(TenantContext.ROOT_TENANT);
+        List<PatientSearchResult> rootResults = searchIndex.search("juan perez", 10);
+
+        // Then
+        assertEquals(List.of(4L), northResults.stream().map(PatientSearchResult::getId).toList());
+        assertEquals(List.of(1L, 4L), rootResults.stream().map(PatientSearchResult::getId).toList());
+        assertEquals(4, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("Debería mover el paciente de partición al cambiar de clínica")
+    void whenPatientChangesClinic_thenSearchInNewClinic() {
+        // Given
+        Patient patient = createPatient(2L, "María García", "MED456", "maria@example.com", "+34987654321");
+        patient.setClinicId("clinica-norte");
+
+        // When
+        searchIndex.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.UPDATED, patient, null));
+
+        // Then
+        assertTrue(searchIndex.search("maria", 10).isEmpty());
+        TenantContext.setCurrentTenant("clinica-norte");
+        assertEquals(2L, searchIndex.search("maria", 10).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("No debería resucitar ni pisar pacientes cambiados mientras se leía su página")
+    void whenChangedWhileLoading_thenKeepEventState() {
+        // Given
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        PatientSearchIndex index = new PatientSearchIndex(patientRepository);
+        Patient deleted = createPatient(1L, "Juan Pérez", "MED123", "juan@example.com", "+34 600-123-456");
+        Patient renamed = createPatient(2L, "María López", "MED456", "maria@example.com", "+34987654321");
+        // La página se leyó antes del commit; los eventos llegan antes de aplicarla
+        when(patientRepository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenAnswer(invocation -> {
+            List<Patient> page = List.of(deleted,
+                    createPatient(2L, "María García", "MED456", "maria@example.com", "+34987654321"));
+            index.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.DELETED, deleted, null));
+            index.onPatientChanged(new PatientChangedEvent(PatientChangedEvent.ChangeType.UPDATED, renamed, null));
+            return page;
+        });
+
+        // When
+        index.load();
+
+        // Then
+        assertTrue(index.search("juan", 10).isEmpty());
+        assertTrue(index.search("garcia", 10).isEmpty());
+        assertEquals(2L, index.search("lopez", 10).get(0).getId());
+        assertEquals(1, index.size());
+        assertTrue(index.isLoaded());
+    }
+
+    @Test
+    @DisplayName("Debería respetar el límite de resultados")
+    void whenLimitReached_thenReturnTopK() {
+        // When/Then
+        assertEquals(1, searchIndex.search("med", 1).size());
+        assertEquals(3, searchIndex.search("med", 10).size());
+    }
+}
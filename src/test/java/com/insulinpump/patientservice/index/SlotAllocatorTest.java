@@ -0,0 +1,57 @@
+package com.insulinpump.patientservice.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Slot Allocator Tests")
+class SlotAllocatorTest {
+
+    @Test
+    @DisplayName("Debería mantener el hueco de un id y reutilizar los huecos liberados")
+    void whenReleaseThenAllocate_thenReuseSlot() {
+        // Given
+        SlotAllocator slots = new SlotAllocator();
+        int first = slots.allocate(100L);
+        int second = slots.allocate(200L);
+
+        // When
+        int again = slots.allocate(100L);
+        int released = slots.release(100L);
+        int reused = slots.allocate(300L);
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(first, again);
+        assertEquals(first, released);
+        assertEquals(first, reused);
+        assertEquals(SlotAllocator.NO_SLOT, slots.slotOf(100L));
+        assertEquals(SlotAllocator.NO_SLOT, slots.release(100L));
+        assertEquals(2, slots.size());
+        assertEquals(2, slots.highWaterMark());
+    }
+
+    @Test
+    @DisplayName("Debería ampliar la pila de huecos libres")
+    void whenManyReleased_thenAllReused() {
+        // Given
+        SlotAllocator slots = new SlotAllocator();
+        for (long id = 0; id < 100; id++) {
+            slots.allocate(id);
+        }
+
+        // When
+        for (long id = 0; id < 100; id++) {
+            slots.release(id);
+        }
+        for (long id = 100; id < 200; id++) {
+            slots.allocate(id);
+        }
+
+        // Then
+        assertEquals(100, slots.size());
+        assertEquals(100, slots.highWaterMark());
+    }
+}
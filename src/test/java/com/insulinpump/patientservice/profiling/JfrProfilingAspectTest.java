@@ -0,0 +1,46 @@
+package com.insulinpump.patientservice.profiling;
+
+import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.repository.ReactivePatientRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JFR Profiling Aspect Tests")
+class JfrProfilingAspectTest {
+
+    private AspectJExpressionPointcut repositoryPointcut() throws NoSuchMethodException {
+        Method advice = JfrProfilingAspect.class.getMethod("profileRepositoryCall", ProceedingJoinPoint.class);
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(advice.getAnnotation(Around.class).value());
+        return pointcut;
+    }
+
+    @Test
+    @DisplayName("Debería perfilar las consultas de los repositorios de Spring Data")
+    void whenSpringDataRepository_thenPointcutMatches() throws Exception {
+        // Given
+        AspectJExpressionPointcut pointcut = repositoryPointcut();
+        Method findByMedicalId = PatientRepository.class.getMethod("findByMedicalId", String.class);
+
+        // When / Then
+        assertTrue(pointcut.matches(findByMedicalId, PatientRepository.class));
+    }
+
+    @Test
+    @DisplayName("No debería perfilar el repositorio reactivo, que solo ensambla Mono y Flux")
+    void whenReactiveRepository_thenPointcutDoesNotMatch() throws Exception {
+        // Given
+        AspectJExpressionPointcut pointcut = repositoryPointcut();
+        Method findById = ReactivePatientRepository.class.getMethod("findById", String.class, Long.class);
+
+        // When / Then
+        assertFalse(pointcut.matches(findById, ReactivePatientRepository.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.insulinpump.patientservice.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JFR Recording Service Tests")
+class JfrRecordingServiceTest {
+
+    @Test
+    @DisplayName("Debería grabar solo los eventos propios, sin eventos del JDK")
+    void whenRecording_thenOnlyPatientServiceEvents() throws Exception {
+        // Given
+        JfrRecordingService service = new JfrRecordingService(60, 16, 0);
+        service.start(Duration.ofSeconds(30));
+
+        // When
+        PatientOperationEvent event = new PatientOperationEvent();
+        event.begin();
+        event.end();
+        event.operation = "getPatientById";
+        event.commit();
+        CacheLookupEvent.emit("device-routing", 100L, true);
+        Path dump = service.stop();
+
+        // Then
+        Set<String> types = new HashSet<>();
+        try (RecordingFile file = new RecordingFile(dump)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent recorded = file.readEvent();
+                types.add(recorded.getEventType().getName());
+            }
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+        assertEquals(Set.of(PatientOperationEvent.NAME, CacheLookupEvent.NAME), types);
+    }
+
+    @Test
+    @DisplayName("No debería registrar claves de texto, que pueden ser IDs médicos")
+    void whenKeyIsText_thenOmitIt() {
+        assertEquals("42", JfrProfilingAspect.keyOf(new Object[]{42L}));
+        assertNull(JfrProfilingAspect.keyOf(new Object[]{"MED123"}));
+    }
+}
@@ -0,0 +1,66 @@
+package com.insulinpump.patientservice.profiling;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JFR Summarizer Tests")
+class JfrSummarizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Debería agrupar eventos por operación y ordenar los más lentos")
+    void whenSummarizeRecording_thenReturnTopOperations() throws Exception {
+        // Given
+        Path dump = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PatientOperationEvent.NAME);
+            recording.enable(RepositoryCallEvent.NAME);
+            recording.start();
+
+            emitServiceOperation("getPatientById", "1", 1);
+            emitServiceOperation("getPatientById", "2", 1);
+            emitServiceOperation("getAllPatients", null, 20);
+
+            RepositoryCallEvent repositoryCall = new RepositoryCallEvent();
+            repositoryCall.begin();
+            Thread.sleep(5);
+            repositoryCall.end();
+            repositoryCall.operation = "PatientRepository.findById";
+            repositoryCall.key = "1";
+            repositoryCall.rows = 1;
+            repositoryCall.commit();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // When
+        ProfilingReport report = new JfrSummarizer().summarize(dump, 2);
+
+        // Then
+        assertEquals(4, report.getTotalEvents());
+        assertEquals(2, report.getOperations().size());
+        assertEquals(2, report.getSlowestEvents().size());
+        assertEquals("PatientRepository.findById", report.getSlowestEvents().get(0).getOperation());
+        assertTrue(report.getSlowestEvents().get(0).getDurationMillis()
+                >= report.getSlowestEvents().get(1).getDurationMillis());
+    }
+
+    private static void emitServiceOperation(String operation, String key, int rows) {
+        PatientOperationEvent event = new PatientOperationEvent();
+        event.begin();
+        event.end();
+        event.operation = operation;
+        event.key = key;
+        event.rows = rows;
+        event.commit();
+    }
+}
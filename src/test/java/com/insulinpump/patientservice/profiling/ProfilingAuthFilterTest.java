@@ -0,0 +1,71 @@
+package com.insulinpump.patientservice.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Profiling Auth Filter Tests")
+class ProfilingAuthFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private ProfilingAuthFilter filter;
+
+    @BeforeEach
+    void setup() {
+        filter = new ProfilingAuthFilter(objectMapper, "secreto");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 401 sin token o con un token incorrecto")
+    void whenTokenMissingOrWrong_thenReturn401() throws Exception {
+        // Given
+        AtomicBoolean reached = new AtomicBoolean();
+        MockHttpServletRequest withoutToken = new MockHttpServletRequest("POST", "/admin/profiling/start");
+        MockHttpServletRequest wrongToken = new MockHttpServletRequest("POST", "/admin/profiling/start");
+        wrongToken.addHeader(ProfilingAuthFilter.TOKEN_HEADER, "otro");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(withoutToken, first, (req, res) -> reached.set(true));
+        filter.doFilter(wrongToken, second, (req, res) -> reached.set(true));
+
+        // Then
+        assertFalse(reached.get());
+        assertEquals(401, first.getStatus());
+        assertEquals(401, second.getStatus());
+    }
+
+    @Test
+    @DisplayName("Debería dejar pasar el token correcto y no afectar a otras rutas")
+    void whenTokenValidOrOtherPath_thenContinue() throws Exception {
+        // Given
+        MockHttpServletRequest profiling = new MockHttpServletRequest("GET", "/admin/profiling/summary");
+        profiling.addHeader(ProfilingAuthFilter.TOKEN_HEADER, "secreto");
+        AtomicBoolean profilingReached = new AtomicBoolean();
+        AtomicBoolean apiReached = new AtomicBoolean();
+
+        // When
+        filter.doFilter(profiling, new MockHttpServletResponse(), (req, res) -> profilingReached.set(true));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/patients/1"), new MockHttpServletResponse(),
+                (req, res) -> apiReached.set(true));
+
+        // Then
+        assertTrue(profilingReached.get());
+        assertTrue(apiReached.get());
+    }
+
+    @Test
+    @DisplayName("No debería arrancar con el perfilado activo y sin token configurado")
+    void whenTokenNotConfigured_thenFailFast() {
+        assertThrows(IllegalStateException.class, () -> new ProfilingAuthFilter(objectMapper, " "));
+    }
+}
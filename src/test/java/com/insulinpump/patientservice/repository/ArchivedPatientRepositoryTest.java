@@ -0,0 +1,75 @@
+package com.insulinpump.patientservice.repository;
+
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.tenant.TenantIdentifierResolver;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(TenantIdentifierResolver.class)
+@DisplayName("Archived Patient Repository Tests")
+class ArchivedPatientRepositoryTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ArchivedPatientRepository archivedPatientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long createPatient(String medicalId, LocalDateTime lastActivityAt) {
+        Patient patient = new Patient();
+        patient.setName("Paciente " + medicalId);
+        patient.setAge(40);
+        patient.setMedicalId(medicalId);
+        patient.setDiabetesType(DiabetesType.TYPE_1);
+        Long id = patientRepository.saveAndFlush(patient).getId();
+        // Simula filas anteriores a la columna (NULL) o inactivas desde hace tiempo
+        entityManager.createNativeQuery("UPDATE pacientes SET last_activity_at = :at WHERE id = :id")
+                .setParameter("at", lastActivityAt)
+                .setParameter("id", id)
+                .executeUpdate();
+        return id;
+    }
+
+    @Test
+    @DisplayName("No debería considerar frío a un paciente sin fecha de actividad")
+    void whenLastActivityNull_thenNotCold() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        createPatient("MED-NULL", null);
+        Long coldId = createPatient("MED-OLD", now.minusDays(1000));
+
+        // When
+        int started = archivedPatientRepository.startActivityClock(now);
+        List<Long> cold = archivedPatientRepository.findColdPatientIds(0L, now.minusDays(730), PageRequest.ofSize(10));
+
+        // Then
+        assertEquals(1, started);
+        assertEquals(List.of(coldId), cold);
+    }
+
+    @Test
+    @DisplayName("No debería devolver pacientes sin fecha aunque no se haya iniciado el reloj")
+    void whenLastActivityNullAndClockNotStarted_thenNotCold() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        createPatient("MED-NULL", null);
+
+        // When/Then
+        assertTrue(archivedPatientRepository.findColdPatientIds(0L, now, PageRequest.ofSize(10)).isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package com.insulinpump.patientservice.repository;
+
+import com.insulinpump.patientservice.model.PatientMeasurement;
+import com.insulinpump.patientservice.tenant.TenantIdentifierResolver;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(TenantIdentifierResolver.class)
+@DisplayName("Patient Measurement Repository Tests")
+class PatientMeasurementRepositoryTest {
+
+    @Autowired
+    private PatientMeasurementRepository measurementRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Debería generar la clave primaria con el paciente como primera columna")
+    void whenSchemaGenerated_thenPrimaryKeyStartsWithPatient() {
+        // When
+        @SuppressWarnings("unchecked")
+        List<String> columns = entityManager.createNativeQuery(
+                        "SELECT k.COLUMN_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " +
+                        "JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS c " +
+                        "ON c.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND c.CONSTRAINT_NAME = k.CONSTRAINT_NAME " +
+                        "WHERE c.TABLE_NAME = 'MEDICIONES_PACIENTE' AND c.CONSTRAINT_TYPE = 'PRIMARY KEY' " +
+                        "ORDER BY k.ORDINAL_POSITION")
+                .getResultList();
+
+        // Then
+        assertEquals(List.of("PATIENT_ID", "MEASURED_AT"), columns);
+    }
+
+    @Test
+    @DisplayName("Debería devolver solo las mediciones existentes del paciente indicado")
+    void whenFindExisting_thenOnlyRequestedPatient() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2026, 1, 5, 8, 0);
+        measurementRepository.saveAllAndFlush(List.of(
+                new PatientMeasurement(1L, at, 75.0f, 175.0f),
+                new PatientMeasurement(2L, at, 80.0f, 180.0f)));
+
+        // When
+        List<PatientMeasurement> existing = measurementRepository.findExisting(1L, List.of(at, at.plusDays(1)));
+
+        // Then
+        assertEquals(1, existing.size());
+        assertEquals(1L, existing.get(0).getId().patientId());
+        assertEquals(at, existing.get(0).getId().measuredAt());
+    }
+}
@@ -0,0 +1,103 @@
+package com.insulinpump.patientservice.repository;
+
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import com.insulinpump.patientservice.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transacción de test: Hibernate fija la clínica al abrir la sesión y cada llamada debe abrir la suya
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(TenantIdentifierResolver.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Patient Repository Tests")
+class PatientRepositoryTest {
+
+    private static final String NORTE = "clinica-norte";
+    private static final String SUR = "clinica-sur";
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.callAsRoot(() -> {
+            patientRepository.deleteAllInBatch();
+            return null;
+        });
+        TenantContext.clear();
+    }
+
+    private Patient createPatient(String clinicId, String medicalId) {
+        Patient patient = new Patient();
+        patient.setName("Paciente " + medicalId);
+        patient.setAge(40);
+        patient.setMedicalId(medicalId);
+        patient.setDiabetesType(DiabetesType.TYPE_1);
+        return TenantContext.callAs(clinicId, () -> patientRepository.save(patient));
+    }
+
+    @Test
+    @DisplayName("Debería asignar la clínica actual al insertar")
+    void whenSave_thenClinicFromContext() {
+        // When
+        Patient saved = createPatient(NORTE, "MED123");
+
+        // Then
+        assertEquals(NORTE, saved.getClinicId());
+    }
+
+    @Test
+    @DisplayName("findById no debería encontrar pacientes de otra clínica")
+    void whenFindByIdFromOtherClinic_thenEmpty() {
+        // Given
+        Long id = createPatient(NORTE, "MED123").getId();
+
+        // When/Then
+        assertTrue(TenantContext.callAs(NORTE, () -> patientRepository.findById(id)).isPresent());
+        assertTrue(TenantContext.callAs(SUR, () -> patientRepository.findById(id)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("existsByMedicalId solo debería comprobar la clínica actual y permitir el mismo ID en otra")
+    void whenSameMedicalIdInOtherClinic_thenAllowed() {
+        // Given
+        createPatient(NORTE, "MED123");
+
+        // When/Then
+        assertTrue(TenantContext.callAs(NORTE, () -> patientRepository.existsByMedicalId("MED123")));
+        assertFalse(TenantContext.callAs(SUR, () -> patientRepository.existsByMedicalId("MED123")));
+        assertEquals(SUR, createPatient(SUR, "MED123").getClinicId());
+    }
+
+    @Test
+    @DisplayName("La consulta por keyset solo debería recorrer la clínica actual; el tenant raíz recorre todas")
+    void whenKeysetQuery_thenOnlyCurrentClinic() {
+        // Given
+        Long first = createPatient(NORTE, "MED1").getId();
+        createPatient(SUR, "MED2");
+        Long third = createPatient(NORTE, "MED3").getId();
+
+        // When
+        List<Patient> norte = TenantContext.callAs(NORTE,
+                () -> patientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)));
+        List<Patient> all = TenantContext.callAsRoot(
+                () -> patientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10)));
+
+        // Then
+        assertEquals(List.of(first, third), norte.stream().map(Patient::getId).toList());
+        assertEquals(3, all.size());
+    }
+}
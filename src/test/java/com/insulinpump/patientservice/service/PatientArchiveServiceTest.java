@@ -0,0 +1,83 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.repository.ArchivedPatientRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Patient Archive Service Tests")
+class PatientArchiveServiceTest {
+
+    @Mock
+    private ArchivedPatientRepository archivedPatientRepository;
+
+    @InjectMocks
+    private PatientArchiveService archiveService;
+
+    @Test
+    @DisplayName("Debería mover un lote y devolver el último ID examinado")
+    void whenArchiveBatch_withColdPatients_thenMoveAndReturnLastId() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(archivedPatientRepository.findColdPatientIds(eq(0L), eq(cutoff), any(Pageable.class)))
+                .thenReturn(Arrays.asList(3L, 7L, 9L));
+        when(archivedPatientRepository.copyToArchive(anyList(), eq(cutoff), any())).thenReturn(3);
+        when(archivedPatientRepository.deleteArchivedFromHot(anyList())).thenReturn(3);
+
+        // When
+        Long lastId = archiveService.archiveBatch(0L, cutoff, 500);
+
+        // Then
+        assertEquals(9L, lastId);
+        verify(archivedPatientRepository).deleteArchivedFromHot(Arrays.asList(3L, 7L, 9L));
+    }
+
+    @Test
+    @DisplayName("Debería terminar cuando no quedan pacientes fríos")
+    void whenArchiveBatch_withoutColdPatients_thenReturnNull() {
+        // Given
+        when(archivedPatientRepository.findColdPatientIds(any(), any(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // When/Then
+        assertNull(archiveService.archiveBatch(0L, LocalDateTime.now(), 500));
+        verify(archivedPatientRepository, never()).copyToArchive(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("No debería rehidratar un paciente que no está en el archivo de su clínica")
+    void whenRehydrate_withUnknownPatient_thenReturnFalse() {
+        // Given
+        when(archivedPatientRepository.existsById(5L)).thenReturn(false);
+
+        // When/Then
+        assertFalse(archiveService.rehydrate(5L));
+        verify(archivedPatientRepository, never()).copyToHot(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería iniciar el reloj de actividad de los pacientes sin fecha")
+    void whenStartActivityClock_thenDelegateWithNow() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 10, 0);
+        when(archivedPatientRepository.startActivityClock(now)).thenReturn(12);
+
+        // When/Then
+        assertEquals(12, archiveService.startActivityClock(now));
+    }
+}
@@ -0,0 +1,193 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.dto.MeasurementPoint;
+import com.insulinpump.patientservice.dto.MeasurementRequest;
+import com.insulinpump.patientservice.exception.MeasurementConflictException;
+import com.insulinpump.patientservice.exception.PatientNotFoundException;
+import com.insulinpump.patientservice.model.MeasurementResolution;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.model.PatientMeasurement;
+import com.insulinpump.patientservice.repository.ArchivedPatientRepository;
+import com.insulinpump.patientservice.repository.PatientMeasurementRepository;
+import com.insulinpump.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Patient Measurement Service Tests")
+class PatientMeasurementServiceTest {
+
+    @Mock
+    private PatientMeasurementRepository measurementRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private ArchivedPatientRepository archivedPatientRepository;
+
+    @InjectMocks
+    private PatientMeasurementService measurementService;
+
+    @Test
+    @DisplayName("Debería agregar las mediciones por día")
+    void whenStreamMeasurements_withDailyResolution_thenAverageByDay() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+        when(patientRepository.existsById(1L)).thenReturn(true);
+        when(measurementRepository.findRangeAfter(eq(1L), any(), eq(to), any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        new PatientMeasurement(1L, LocalDateTime.of(2026, 1, 5, 8, 0), 74.0f, 175.0f),
+                        new PatientMeasurement(1L, LocalDateTime.of(2026, 1, 5, 20, 0), 76.0f, 175.0f),
+                        new PatientMeasurement(1L, LocalDateTime.of(2026, 1, 6, 8, 0), 75.0f, 175.0f)));
+
+        // When
+        List<MeasurementPoint> points = measurementService
+                .streamMeasurements(1L, from, to, MeasurementResolution.DAILY)
+                .collectList().block();
+
+        // Then
+        assertEquals(2, points.size());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 0, 0), points.get(0).getTimestamp());
+        assertEquals(75.0f, points.get(0).getWeight());
+        assertEquals(2, points.get(0).getSamples());
+        assertEquals(1, points.get(1).getSamples());
+    }
+
+    @Test
+    @DisplayName("Debería agrupar las semanas a partir del lunes")
+    void whenBucketWeekly_thenStartOnMonday() {
+        // 2026-01-08 es jueves
+        assertEquals(LocalDateTime.of(2026, 1, 5, 0, 0),
+                PatientMeasurementService.bucketOf(LocalDateTime.of(2026, 1, 8, 13, 30), MeasurementResolution.WEEKLY));
+    }
+
+    @Test
+    @DisplayName("Debería lanzar excepción si el paciente no existe")
+    void whenStreamMeasurements_withUnknownPatient_thenThrowException() {
+        // Given
+        when(patientRepository.existsById(999L)).thenReturn(false);
+
+        // When/Then
+        assertThrows(PatientNotFoundException.class, () -> measurementService.streamMeasurements(
+                999L, LocalDateTime.MIN, LocalDateTime.MAX, MeasurementResolution.RAW));
+        verify(measurementRepository, never()).findRangeAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("No debería registrar medición si el peso y la altura no cambian")
+    void whenRecordIfChanged_withSameValues_thenSkip() {
+        // Given
+        Patient patient = new Patient();
+        patient.setId(1L);
+        patient.setWeight(75.0f);
+        patient.setHeight(175.0f);
+
+        // When
+        measurementService.recordIfChanged(75.0f, 175.0f, patient);
+
+        // Then
+        verify(measurementRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Debería registrar una sola vez las mediciones repetidas del lote")
+    void whenAppendMeasurements_withIdenticalDuplicates_thenCollapse() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2026, 1, 5, 8, 0);
+        when(patientRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        int inserted = measurementService.appendMeasurements(1L, List.of(
+                new MeasurementRequest(at, 75.0f, 175.0f),
+                new MeasurementRequest(at, 75.0f, 175.0f),
+                new MeasurementRequest(at.plusDays(1), 74.5f, null)));
+
+        // Then
+        assertEquals(2, inserted);
+        verify(measurementRepository).saveAllAndFlush(argThat(saved -> saved.spliterator().getExactSizeIfKnown() == 2));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un lote con valores distintos para el mismo instante")
+    void whenAppendMeasurements_withConflictingDuplicates_thenThrowConflict() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2026, 1, 5, 8, 0);
+        when(patientRepository.existsById(1L)).thenReturn(true);
+        List<MeasurementRequest> batch = List.of(
+                new MeasurementRequest(at, 75.0f, 175.0f),
+                new MeasurementRequest(at, 76.0f, 175.0f));
+
+        // When & Then
+        assertThrows(MeasurementConflictException.class, () -> measurementService.appendMeasurements(1L, batch));
+        verify(measurementRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Debería omitir las mediciones ya guardadas con los mismos valores")
+    void whenAppendMeasurements_withStoredIdenticalRow_thenSkipIt() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2026, 1, 5, 8, 0);
+        when(patientRepository.existsById(1L)).thenReturn(true);
+        when(measurementRepository.findExisting(eq(1L), any()))
+                .thenReturn(List.of(new PatientMeasurement(1L, at, 75.0f, 175.0f)));
+
+        // When
+        int inserted = measurementService.appendMeasurements(1L, List.of(
+                new MeasurementRequest(at, 75.0f, 175.0f),
+                new MeasurementRequest(at.plusDays(1), 74.5f, 175.0f)));
+
+        // Then
+        assertEquals(1, inserted);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una medición distinta de la ya guardada en el mismo instante")
+    void whenAppendMeasurements_withStoredDifferentRow_thenThrowConflict() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2026, 1, 5, 8, 0);
+        when(patientRepository.existsById(1L)).thenReturn(true);
+        when(measurementRepository.findExisting(eq(1L), any()))
+                .thenReturn(List.of(new PatientMeasurement(1L, at, 75.0f, 175.0f)));
+        List<MeasurementRequest> batch = List.of(new MeasurementRequest(at, 80.0f, 175.0f));
+
+        // When & Then
+        assertThrows(MeasurementConflictException.class, () -> measurementService.appendMeasurements(1L, batch));
+    }
+
+    @Test
+    @DisplayName("Debería convertir la violación de clave de una inserción concurrente en conflicto")
+    void whenAppendMeasurements_withConcurrentInsert_thenThrowConflict() {
+        // Given
+        when(patientRepository.existsById(1L)).thenReturn(true);
+        when(measurementRepository.saveAllAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicada"));
+        List<MeasurementRequest> batch = List.of(new MeasurementRequest(LocalDateTime.of(2026, 1, 5, 8, 0), 75.0f, null));
+
+        // When & Then
+        assertThrows(MeasurementConflictException.class, () -> measurementService.appendMeasurements(1L, batch));
+    }
+
+    @Test
+    @DisplayName("Debería calcular el IMC con la altura en centímetros")
+    void whenBmiOf_thenUseMeters() {
+        assertEquals(25.0f, PatientMeasurement.bmiOf(81.0f, 180.0f), 0.01f);
+        assertNull(PatientMeasurement.bmiOf(81.0f, null));
+    }
+}
@@ -3,9 +3,14 @@ package com.insulinpump.patientservice.service;
 
 import com.insulinpump.patientservice.exception.DuplicateMedicalIdException;
 import com.insulinpump.patientservice.exception.PatientNotFoundException;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.index.DeviceRoutingTable;
+import com.insulinpump.patientservice.index.PatientColumnStore;
+import com.insulinpump.patientservice.index.PatientSearchIndex;
 import com.insulinpump.patientservice.model.DiabetesType;
 import com.insulinpump.patientservice.model.Patient;
 import com.insulinpump.patientservice.repository.PatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +26,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +36,24 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private DeviceRoutingTable deviceRoutingTable;
+
+    @Mock
+    private PatientSearchIndex searchIndex;
+
+    @Mock
+    private PatientColumnStore columnStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PatientMeasurementService measurementService;
+
+    @Mock
+    private PatientArchiveService archiveService;
+
     @InjectMocks
     private PatientService patientService;
 
@@ -103,6 +128,49 @@ class PatientServiceTest {
         verify(patientRepository, times(1)).findById(3L);
     }
 
+    @Test
+    @DisplayName("Debería buscar en el archivo cuando el paciente no está en la tabla principal")
+    void whenGetPatientById_withArchivedPatient_thenReturnFromArchive() {
+        // Given
+        when(patientRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archiveService.findArchivedById(1L)).thenReturn(Optional.of(patient1));
+
+        // When
+        Patient found = patientService.getPatientById(1L);
+
+        // Then
+        assertEquals("MED123", found.getMedicalId());
+        verify(archiveService, never()).rehydrate(any());
+    }
+
+    @Test
+    @DisplayName("Debería rehidratar un paciente archivado al asignarle un dispositivo")
+    void whenAssignDeviceToPatient_withArchivedPatient_thenRehydrate() {
+        // Given
+        when(patientRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(patient1));
+        when(archiveService.rehydrate(1L)).thenReturn(true);
+        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Patient result = patientService.assignDeviceToPatient(1L, 100L);
+
+        // Then
+        assertEquals(100L, result.getDeviceId());
+        verify(archiveService, times(1)).rehydrate(1L);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un ID médico que ya existe en el archivo")
+    void whenCreatePatient_withArchivedMedicalId_thenThrowException() {
+        // Given
+        when(patientRepository.existsByMedicalId("MED123")).thenReturn(false);
+        when(archiveService.existsArchivedByMedicalId("MED123")).thenReturn(true);
+
+        // When/Then
+        assertThrows(DuplicateMedicalIdException.class, () -> patientService.createPatient(patient1));
+        verify(patientRepository, never()).save(any(Patient.class));
+    }
+
     @Test
     @DisplayName("Debería crear un paciente exitosamente")
     void whenCreatePatient_thenReturnSavedPatient() {
@@ -161,6 +229,29 @@ class PatientServiceTest {
         verify(patientRepository, times(1)).save(any(Patient.class));
     }
 
+    @Test
+    @DisplayName("Debería registrar en el historial el peso y la altura anteriores a la actualización")
+    void whenUpdatePatient_withNewWeight_thenRecordMeasurement() {
+        // Given
+        patient1.setWeight(75.5f);
+        patient1.setHeight(175.0f);
+        Patient details = new Patient();
+        details.setName("Juan Pérez");
+        details.setAge(35);
+        details.setMedicalId("MED123");
+        details.setWeight(74.0f);
+        details.setHeight(175.0f);
+
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient1));
+        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        patientService.updatePatient(1L, details);
+
+        // Then
+        verify(measurementService).recordIfChanged(eq(75.5f), eq(175.0f), argThat(p -> p.getWeight() == 74.0f));
+    }
+
     @Test
     @DisplayName("Debería eliminar un paciente exitosamente")
     void whenDeletePatient_withValidId_thenDeletePatient() {
@@ -174,6 +265,7 @@ class PatientServiceTest {
         // Then
         verify(patientRepository, times(1)).findById(1L);
         verify(patientRepository, times(1)).delete(patient1);
+        verify(measurementService, times(1)).deleteMeasurements(1L);
     }
 
     @Test
@@ -199,6 +291,7 @@ class PatientServiceTest {
     void whenGetPatientByDeviceId_thenReturnPatient() {
         // Given
         patient1.setDeviceId(100L);
+        when(deviceRoutingTable.lookup(100L)).thenReturn(DeviceRoutingTable.NOT_FOUND);
         when(patientRepository.findByDeviceId(100L)).thenReturn(Optional.of(patient1));
 
         // When
@@ -210,5 +303,88 @@ class PatientServiceTest {
         assertEquals("Juan Pérez", found.getName());
         verify(patientRepository, times(1)).findByDeviceId(100L);
     }
+
+    @Test
+    @DisplayName("Debería resolver el paciente por clave primaria desde la tabla de rutas")
+    void whenGetPatientByDeviceId_withRoutedDevice_thenLoadById() {
+        // Given
+        patient1.setDeviceId(100L);
+        when(deviceRoutingTable.lookup(100L)).thenReturn(1L);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient1));
+
+        // When
+        Patient found = patientService.getPatientByDeviceId(100L);
+
+        // Then
+        assertEquals("Juan Pérez", found.getName());
+        verify(patientRepository, never()).findByDeviceId(any());
+    }
+
+    @Test
+    @DisplayName("Debería servir desde memoria la copia del paciente en modo autoritativo")
+    void whenGetPatientByDeviceId_withSnapshot_thenSkipDatabase() {
+        // Given
+        patient1.setClinicId(TenantContext.DEFAULT_TENANT);
+        patient1.setDeviceId(100L);
+        when(deviceRoutingTable.lookup(100L)).thenReturn(1L);
+        when(deviceRoutingTable.findSnapshot(100L, 1L)).thenReturn(patient1);
+
+        // When
+        Patient found = patientService.getPatientByDeviceId(100L);
+
+        // Then
+        assertSame(patient1, found);
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    @DisplayName("No debería servir la copia en memoria de un paciente de otra clínica")
+    void whenGetPatientByDeviceId_withSnapshotFromOtherClinic_thenQueryDatabase() {
+        // Given
+        patient1.setClinicId("clinica-norte");
+        patient1.setDeviceId(100L);
+        when(deviceRoutingTable.lookup(100L)).thenReturn(1L);
+        when(deviceRoutingTable.findSnapshot(100L, 1L)).thenReturn(patient1);
+        when(patientRepository.findById(1L)).thenReturn(Optional.empty());
+        when(patientRepository.findByDeviceId(100L)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientByDeviceId(100L));
+    }
+
+    @Test
+    @DisplayName("Debería consultar la base de datos si la ruta en memoria está obsoleta")
+    void whenGetPatientByDeviceId_withStaleRoute_thenFallBackToQuery() {
+        // Given
+        patient1.setDeviceId(200L);
+        patient2.setDeviceId(100L);
+        when(deviceRoutingTable.lookup(100L)).thenReturn(1L);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient1));
+        when(patientRepository.findByDeviceId(100L)).thenReturn(Optional.of(patient2));
+
+        // When
+        Patient found = patientService.getPatientByDeviceId(100L);
+
+        // Then
+        assertEquals("María García", found.getName());
+    }
+
+    @Test
+    @DisplayName("Debería publicar el cambio al asignar un dispositivo")
+    void whenAssignDeviceToPatient_thenPublishChangeWithPreviousDevice() {
+        // Given
+        patient1.setDeviceId(50L);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient1));
+        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        patientService.assignDeviceToPatient(1L, 100L);
+
+        // Then
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PatientChangedEvent changed
+                && changed.getType() == PatientChangedEvent.ChangeType.DEVICE_ASSIGNED
+                && changed.getPreviousDeviceId() == 50L
+                && changed.getPatient().getDeviceId() == 100L));
+    }
 }
 
@@ -0,0 +1,143 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.exception.PatientNotFoundException;
+import com.insulinpump.patientservice.model.DiabetesType;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.repository.ReactivePatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra una base H2 embebida a través de R2DBC, sin JDBC ni mocks en la ruta de lectura
+@DisplayName("Reactive Patient Service Tests")
+class ReactivePatientServiceTest {
+
+    private DatabaseClient databaseClient;
+    private ReactivePatientService reactivePatientService;
+
+    @BeforeEach
+    void setup() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1;MODE=MySQL"));
+        for (String table : List.of("pacientes", "pacientes_archivo")) {
+            databaseClient.sql("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, clinic_id VARCHAR(64) NOT NULL, " +
+                    "name VARCHAR(255) NOT NULL, age INT NOT NULL, medical_id VARCHAR(255) NOT NULL, device_id BIGINT, " +
+                    "diabetes_type VARCHAR(32), email VARCHAR(255), phone VARCHAR(255), weight REAL, height REAL, " +
+                    "emergency_contact VARCHAR(255), last_activity_at TIMESTAMP)").then().block();
+        }
+        insert("pacientes", 1L, TenantContext.DEFAULT_TENANT, "Juan Pérez", "MED123", 100L, "TYPE_1");
+        insert("pacientes", 2L, TenantContext.DEFAULT_TENANT, "María García", "MED456", null, "TYPE_2");
+        insert("pacientes", 3L, "clinica-norte", "Ana López", "MED789", 300L, "TYPE_1");
+        insert("pacientes_archivo", 4L, TenantContext.DEFAULT_TENANT, "Pedro Ruiz", "MED999", null, "OTHER");
+
+        reactivePatientService = new ReactivePatientService(new ReactivePatientRepository(databaseClient));
+        ReflectionTestUtils.setField(reactivePatientService, "pageSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private void insert(String table, Long id, String clinicId, String name, String medicalId, Long deviceId, String type) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO " + table +
+                        " (id, clinic_id, name, age, medical_id, device_id, diabetes_type, weight, height) " +
+                        "VALUES (:id, :clinic, :name, 40, :medicalId, :deviceId, :type, 70.5, 172.0)")
+                .bind("id", id)
+                .bind("clinic", clinicId)
+                .bind("name", name)
+                .bind("medicalId", medicalId)
+                .bind("type", type);
+        spec = deviceId != null ? spec.bind("deviceId", deviceId) : spec.bindNull("deviceId", Long.class);
+        spec.then().block();
+    }
+
+    @Test
+    @DisplayName("Debería obtener un paciente por ID con todas sus columnas")
+    void whenGetPatientById_thenReturnMappedPatient() {
+        // When
+        Patient patient = reactivePatientService.getPatientById(1L).block();
+
+        // Then
+        assertNotNull(patient);
+        assertEquals("Juan Pérez", patient.getName());
+        assertEquals(TenantContext.DEFAULT_TENANT, patient.getClinicId());
+        assertEquals(100L, patient.getDeviceId());
+        assertEquals(DiabetesType.TYPE_1, patient.getDiabetesType());
+        assertEquals(70.5f, patient.getWeight());
+    }
+
+    @Test
+    @DisplayName("Debería encontrar un paciente archivado por ID y por ID médico")
+    void whenPatientArchived_thenFallBackToArchive() {
+        // When/Then
+        assertEquals("Pedro Ruiz", reactivePatientService.getPatientById(4L).block().getName());
+        assertEquals(4L, reactivePatientService.getPatientByMedicalId("MED999").block().getId());
+    }
+
+    @Test
+    @DisplayName("Debería lanzar excepción cuando el paciente no existe")
+    void whenPatientNotFound_thenError() {
+        // When/Then
+        PatientNotFoundException exception = assertThrows(PatientNotFoundException.class,
+                () -> reactivePatientService.getPatientByDeviceId(999L).block());
+        assertEquals("Paciente no encontrado con dispositivo ID: 999", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("No debería devolver pacientes de otra clínica")
+    void whenOtherClinic_thenNotFound() {
+        // Given
+        TenantContext.setCurrentTenant("clinica-norte");
+
+        // When/Then
+        assertThrows(PatientNotFoundException.class, () -> reactivePatientService.getPatientById(1L).block());
+        assertThrows(PatientNotFoundException.class, () -> reactivePatientService.getPatientById(4L).block());
+        assertEquals(3L, reactivePatientService.getPatientByDeviceId(300L).block().getId());
+    }
+
+    @Test
+    @DisplayName("Debería emitir los pacientes de la clínica en orden de ID")
+    void whenStreamAllPatients_thenEmitClinicPatientsInOrder() {
+        // When
+        List<Patient> patients = reactivePatientService.streamAllPatients().collectList().block();
+
+        // Then
+        assertEquals(List.of(1L, 2L), patients.stream().map(Patient::getId).toList());
+    }
+
+    @Test
+    @DisplayName("El tenant raíz debería ver todas las clínicas")
+    void whenRootTenant_thenStreamAllClinics() {
+        // Given
+        TenantContext.setCurrentTenant(TenantContext.ROOT_TENANT);
+
+        // When
+        List<Patient> patients = reactivePatientService.streamAllPatients().collectList().block();
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), patients.stream().map(Patient::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Debería capturar la clínica al construir la consulta, no al suscribirse")
+    void whenSubscribedOnAnotherThread_thenKeepRequestClinic() {
+        // Given
+        TenantContext.setCurrentTenant("clinica-norte");
+        var mono = reactivePatientService.getPatientById(3L);
+        TenantContext.clear();
+
+        // When/Then
+        assertEquals("Ana López", mono.block().getName());
+    }
+}
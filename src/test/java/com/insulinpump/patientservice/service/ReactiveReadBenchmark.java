@@ -0,0 +1,189 @@
+package com.insulinpump.patientservice.service;
+
+import com.insulinpump.patientservice.repository.ReactivePatientRepository;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara la lectura por ID bloqueante (JDBC + pool de hilos) con la reactiva (R2DBC) bajo la misma latencia de red.
+ * Por defecto usa H2 embebido y simula el viaje de ida y vuelta a MySQL; con -Dbenchmark.jdbc-url y
+ * -Dbenchmark.r2dbc-url (más usuario y contraseña) mide contra una base real con tabla pacientes ya poblada.
+ *
+ * mvn test -Dtest=ReactiveReadBenchmark -Dbenchmark=true [-Dbenchmark.requests=5000 -Dbenchmark.latency-ms=5]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Reactive Read Benchmark")
+class ReactiveReadBenchmark {
+
+    private static final int PATIENTS = 10_000;
+    private static final int POOL_SIZE = 50;
+    private static final int BLOCKING_THREADS = 200;
+
+    private final int requests = Integer.getInteger("benchmark.requests", 5_000);
+    private final long latencyMs = Long.getLong("benchmark.latency-ms", 5L);
+    private final int reactiveConcurrency = Integer.getInteger("benchmark.concurrency", 1_000);
+    private final String jdbcUrl = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL");
+    private final String r2dbcUrl = System.getProperty("benchmark.r2dbc-url", "r2dbc:h2:mem:///benchmark?options=DB_CLOSE_DELAY=-1;MODE=MySQL");
+    private final String username = System.getProperty("benchmark.username", "sa");
+    private final String password = System.getProperty("benchmark.password", "");
+    private final boolean embedded = !System.getProperties().containsKey("benchmark.jdbc-url");
+
+    @Test
+    @DisplayName("Lecturas por ID: JDBC bloqueante frente a R2DBC")
+    void compareBlockingAndReactiveReads() throws Exception {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setUsername(username);
+        hikariConfig.setPassword(password);
+        hikariConfig.setMaximumPoolSize(POOL_SIZE);
+
+        try (HikariDataSource dataSource = new HikariDataSource(hikariConfig)) {
+            if (embedded) {
+                populate(dataSource);
+            }
+            ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                    .builder(ConnectionFactories.get(withCredentials(r2dbcUrl)))
+                    .maxSize(POOL_SIZE)
+                    .build());
+            try {
+                ReactivePatientRepository repository = new ReactivePatientRepository(DatabaseClient.create(pool));
+                // Calentamiento de ambos caminos
+                blocking(dataSource, 500);
+                reactive(repository, 500);
+
+                Result blocking = blocking(dataSource, requests);
+                Result reactive = reactive(repository, requests);
+                System.out.printf("%n%d lecturas, latencia simulada %d ms, pool de %d conexiones%n", requests, latencyMs, POOL_SIZE);
+                System.out.printf("JDBC bloqueante (%d hilos): %s%n", BLOCKING_THREADS, blocking);
+                System.out.printf("R2DBC (concurrencia %d):    %s%n", reactiveConcurrency, reactive);
+            } finally {
+                pool.dispose();
+            }
+        }
+    }
+
+    private ConnectionFactoryOptions withCredentials(String url) {
+        return ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+    }
+
+    private void populate(HikariDataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS pacientes (id BIGINT PRIMARY KEY, clinic_id VARCHAR(64) NOT NULL, " +
+                    "name VARCHAR(255) NOT NULL, age INT NOT NULL, medical_id VARCHAR(255) NOT NULL, device_id BIGINT, " +
+                    "diabetes_type VARCHAR(32), email VARCHAR(255), phone VARCHAR(255), weight REAL, height REAL, " +
+                    "emergency_contact VARCHAR(255), last_activity_at TIMESTAMP)");
+            statement.execute("INSERT INTO pacientes (id, clinic_id, name, age, medical_id, diabetes_type) " +
+                    "SELECT X, 'default', CONCAT('Paciente ', X), 40, CONCAT('MED', X), 'TYPE_1' " +
+                    "FROM SYSTEM_RANGE(1, " + PATIENTS + ")");
+        }
+    }
+
+    private Result blocking(HikariDataSource dataSource, int count) throws Exception {
+        ThreadSampler sampler = new ThreadSampler();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(BLOCKING_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> {
+                    // El hilo queda bloqueado durante el viaje de ida y vuelta, como con el driver JDBC
+                    sleep(latencyMs);
+                    try (Connection connection = dataSource.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(
+                                 "SELECT id, name, medical_id FROM pacientes WHERE id = ? AND clinic_id = ?")) {
+                        statement.setLong(1, randomId());
+                        statement.setString(2, TenantContext.DEFAULT_TENANT);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            resultSet.next();
+                        }
+                    }
+                    return null;
+                }));
+                sampler.sample();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return new Result(count, System.nanoTime() - start, sampler.peak());
+    }
+
+    private Result reactive(ReactivePatientRepository repository, int count) {
+        ThreadSampler sampler = new ThreadSampler();
+        long start = System.nanoTime();
+        Flux.range(0, count)
+                // La espera no ocupa ningún hilo: el temporizador reanuda la cadena al vencer
+                .flatMap(i -> Mono.delay(Duration.ofMillis(latencyMs))
+                        .then(Mono.defer(() -> repository.findById(TenantContext.DEFAULT_TENANT, randomId())))
+                        .doOnNext(patient -> sampler.sample()), reactiveConcurrency)
+                .blockLast();
+        return new Result(count, System.nanoTime() - start, sampler.peak());
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, PATIENTS + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class ThreadSampler {
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private volatile int peak;
+
+        void sample() {
+            int current = threads.getThreadCount();
+            if (current > peak) {
+                peak = current;
+            }
+        }
+
+        int peak() {
+            return peak;
+        }
+    }
+
+    private record Result(int count, long nanos, int peakThreads) {
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("%.0f lecturas/s, %.1f ms en total, pico de %d hilos en la JVM",
+                    count / seconds, nanos / 1e6, peakThreads);
+        }
+    }
+}
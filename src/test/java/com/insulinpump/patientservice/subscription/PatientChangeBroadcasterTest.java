@@ -0,0 +1,242 @@
+package com.insulinpump.patientservice.subscription;
+
+import com.insulinpump.patientservice.dto.PatientChangeNotification;
+import com.insulinpump.patientservice.event.PatientChangedEvent;
+import com.insulinpump.patientservice.model.Patient;
+import com.insulinpump.patientservice.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Patient Change Broadcaster Tests")
+class PatientChangeBroadcasterTest {
+
+    // Cabeceras "event:" de los mensajes enviados, en orden
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+    // Cerrado simula un cliente que no lee: el envío queda bloqueado
+    private volatile CountDownLatch clientReading = new CountDownLatch(0);
+    // Emisores sobre los que se llamó a complete()
+    private final Set<SseEmitter> completed = ConcurrentHashMap.newKeySet();
+    private PatientChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setup() {
+        broadcaster = createBroadcaster(4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    private PatientChangeBroadcaster createBroadcaster(int historySize, int bufferSize) {
+        return createBroadcaster(historySize, bufferSize, 64, 1024);
+    }
+
+    private PatientChangeBroadcaster createBroadcaster(int historySize, int bufferSize, int writerThreads, int writerQueueSize) {
+        return new PatientChangeBroadcaster(historySize, bufferSize, 100, 1, 60, 1, writerThreads, writerQueueSize) {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter() {
+                    // Como ResponseBodyEmitter.send, la espera por el socket ocurre dentro del monitor del emisor
+                    // y, como una escritura bloqueante en el socket, no se interrumpe
+                    @Override
+                    public synchronized void send(SseEventBuilder builder) {
+                        boolean interrupted = false;
+                        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                        while (true) {
+                            try {
+                                clientReading.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                                break;
+                            } catch (InterruptedException e) {
+                                interrupted = true;
+                            }
+                        }
+                        if (interrupted) {
+                            Thread.currentThread().interrupt();
+                        }
+                        String text = builder.build().stream()
+                                .map(part -> String.valueOf(part.getData()))
+                                .collect(Collectors.joining());
+                        text.lines().filter(line -> line.startsWith("event:"))
+                                .findFirst()
+                                .ifPresent(line -> sent.add(line.substring("event:".length())));
+                    }
+
+                    @Override
+                    public synchronized void complete() {
+                        completed.add(this);
+                        super.complete();
+                    }
+                };
+            }
+        };
+    }
+
+    private PatientChangedEvent createEvent(PatientChangedEvent.ChangeType type, long patientId, Long deviceId) {
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        patient.setClinicId(TenantContext.DEFAULT_TENANT);
+        patient.setDeviceId(deviceId);
+        return new PatientChangedEvent(type, patient, null);
+    }
+
+    @Test
+    @DisplayName("Debería enviar solo los cambios de los dispositivos suscritos")
+    void whenSubscribedToDevice_thenReceiveOnlyMatchingChanges() throws Exception {
+        // Given
+        broadcaster.subscribe(Set.of(100L), null, null);
+
+        // When
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, 1L, 200L));
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.DEVICE_ASSIGNED, 2L, 100L));
+
+        // Then
+        assertEquals("DEVICE_ASSIGNED", sent.poll(2, TimeUnit.SECONDS));
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería repetir los eventos posteriores a Last-Event-ID")
+    void whenResumeFromEventId_thenReplayLaterEvents() throws Exception {
+        // Given
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.CREATED, 1L, null));
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.UPDATED, 1L, null));
+
+        // When
+        broadcaster.subscribe(null, Set.of(1L), broadcaster.getEpoch() + "-1");
+
+        // Then
+        assertEquals("UPDATED", sent.poll(2, TimeUnit.SECONDS));
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería avisar con RESYNC si el evento pedido ya no está en el historial")
+    void whenResumeFromEvictedEventId_thenSendResync() throws Exception {
+        // Given
+        for (long id = 1; id <= 6; id++) {
+            broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.CREATED, id, null));
+        }
+
+        // When
+        broadcaster.subscribe(Set.of(999L), null, broadcaster.getEpoch() + "-1");
+
+        // Then
+        assertEquals(PatientChangeBroadcaster.RESYNC_EVENT, sent.poll(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería avisar con RESYNC ante un Last-Event-ID de otro arranque aunque su número exista")
+    void whenResumeFromOtherEpoch_thenSendResyncInsteadOfReplay() throws Exception {
+        // Given
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.CREATED, 1L, null));
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.UPDATED, 1L, null));
+
+        // When
+        broadcaster.subscribe(null, Set.of(1L), "otroarranque-1");
+        broadcaster.subscribe(null, Set.of(1L), "1");
+
+        // Then: solo los dos RESYNC, sin repetir eventos ajenos
+        assertEquals(PatientChangeBroadcaster.RESYNC_EVENT, sent.poll(2, TimeUnit.SECONDS));
+        assertEquals(PatientChangeBroadcaster.RESYNC_EVENT, sent.poll(2, TimeUnit.SECONDS));
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería expulsar al suscriptor que no consume los eventos")
+    void whenSubscriberQueueFull_thenEvict() {
+        // Given
+        clientReading = new CountDownLatch(1);
+        broadcaster.subscribe(null, null, null);
+        assertEquals(1, broadcaster.getSubscriberCount());
+
+        // When
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.CREATED, id, null));
+        }
+
+        // Then
+        assertEquals(0, broadcaster.getSubscriberCount());
+        clientReading.countDown();
+    }
+
+    @Test
+    @DisplayName("Un cliente que no lee no debería bloquear otros hilos y debería expulsarse al vencer la escritura")
+    void whenClientBlocksWrite_thenOtherWorkCompletesAndClientEvicted() throws Exception {
+        // Given: más clientes atascados que hilos portadores de hilos virtuales
+        clientReading = new CountDownLatch(1);
+        int blockedClients = Runtime.getRuntime().availableProcessors() + 1;
+        for (int i = 0; i < blockedClients; i++) {
+            broadcaster.subscribe(null, null, null);
+        }
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.CREATED, 1L, null));
+        Thread.sleep(100);
+
+        // When
+        CountDownLatch otherRequests = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            Thread.ofVirtual().start(otherRequests::countDown);
+        }
+
+        // Then
+        assertTrue(otherRequests.await(2, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (broadcaster.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, broadcaster.getSubscriberCount());
+        clientReading.countDown();
+    }
+
+    @Test
+    @DisplayName("Debería expulsar al suscriptor si los hilos de escritura están ocupados sin crear más")
+    void whenWritersSaturated_thenEvictWithoutNewThreads() throws Exception {
+        // Given: un hilo de escritura y una plaza en su cola
+        broadcaster.shutdown();
+        broadcaster = createBroadcaster(4, 2, 1, 1);
+        clientReading = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            broadcaster.subscribe(null, null, null);
+        }
+
+        // When
+        broadcaster.onPatientChanged(createEvent(PatientChangedEvent.ChangeType.CREATED, 1L, null));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (broadcaster.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // Then: el envío atascado retiene el monitor y su emisor no se completa; los otros dos sí
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(1, broadcaster.getWriterThreadCount());
+        assertEquals(2, completed.size());
+        clientReading.countDown();
+    }
+
+    @Test
+    @DisplayName("No debería enviar cambios de otra clínica")
+    void whenChangeInOtherClinic_thenNotMatch() {
+        // Given
+        PatientSubscription subscription = new PatientSubscription("clinica-norte", null, null, new SseEmitter(), 2);
+        PatientChangeNotification notification = new PatientChangeNotification();
+        notification.setClinicId("clinica-sur");
+
+        // When/Then
+        assertFalse(subscription.matches(notification));
+        notification.setClinicId("clinica-norte");
+        assertTrue(subscription.matches(notification));
+    }
+}
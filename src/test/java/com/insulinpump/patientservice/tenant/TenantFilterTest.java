@@ -0,0 +1,70 @@
+package com.insulinpump.patientservice.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tenant Filter Tests")
+class TenantFilterTest {
+
+    private TenantFilter tenantFilter;
+
+    @BeforeEach
+    void setup() {
+        tenantFilter = new TenantFilter(new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    @DisplayName("Debería establecer la clínica de la cabecera durante la petición")
+    void whenHeaderPresent_thenTenantSetDuringRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients/1");
+        request.addHeader(TenantFilter.TENANT_HEADER, "clinica-norte");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        // When
+        tenantFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(TenantContext.getCurrentTenant()));
+
+        // Then
+        assertEquals("clinica-norte", seen.get());
+        assertEquals(TenantContext.DEFAULT_TENANT, TenantContext.getCurrentTenant());
+    }
+
+    @Test
+    @DisplayName("Debería usar la clínica por defecto sin cabecera")
+    void whenHeaderMissing_thenUseDefaultTenant() throws Exception {
+        // Given
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        // When
+        tenantFilter.doFilter(new MockHttpServletRequest("GET", "/api/patients"), new MockHttpServletResponse(),
+                (req, res) -> seen.set(TenantContext.getCurrentTenant()));
+
+        // Then
+        assertEquals(TenantContext.DEFAULT_TENANT, seen.get());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar identificadores de clínica inválidos")
+    void whenHeaderInvalid_thenReturn400() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients");
+        request.addHeader(TenantFilter.TENANT_HEADER, "clinica norte;drop");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        tenantFilter.doFilter(request, response, (req, res) -> fail("La petición no debería continuar"));
+
+        // Then
+        assertEquals(400, response.getStatus());
+    }
+}